@@ -0,0 +1,169 @@
+package com.aimx.androidpubnub;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.DefaultHttpClient;
+
+import pubnub.json.JSONArray;
+import pubnub.transport.Transport;
+
+/**
+ * PubNub 3.1 Apache HttpClient Transport
+ *
+ * Default transport of the Android client. Requests run on a fixed pool
+ * of worker threads, each with a DefaultHttpClient whose connections are
+ * released when it is done. Cancelling a request or closing the transport
+ * aborts the HTTP request, which also ends a pending long-poll.
+ *
+ * @package com.aimx.androidpubnub
+ */
+public class HttpClientTransport implements Transport {
+    private final ExecutorService workers;
+    private final Set<Request> pending =
+        Collections.synchronizedSet(new HashSet<Request>());
+
+    /**
+     * HttpClient Transport
+     *
+     * Four worker threads.
+     */
+    public HttpClientTransport() {
+        this(4);
+    }
+
+    /**
+     * HttpClient Transport
+     *
+     * @param int worker threads, the most requests sent at once.
+     */
+    public HttpClientTransport( int threads ) {
+        this.workers = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "pubnub-android-" + count.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    public Future<JSONArray> get(
+        final String url,
+        final Map<String, String> headers,
+        final Handler handler
+    ) {
+        // Prepare request
+        final HttpGet request = new HttpGet(url);
+        if (headers != null) {
+            for (Map.Entry<String, String> h : headers.entrySet()) {
+                request.setHeader(h.getKey(), h.getValue());
+            }
+        }
+        request.setHeader("User-Agent", "Java-Android");
+        request.setHeader("Accept-Encoding", "gzip");
+
+        Request task = new Request(request, new Callable<JSONArray>() {
+            public JSONArray call() throws Exception {
+                HttpClient httpclient = new DefaultHttpClient();
+                httpclient.getParams().setParameter("http.connection.timeout", 310000);
+                try {
+                    // Execute request
+                    HttpResponse response = httpclient.execute(request);
+
+                    HttpEntity entity = response.getEntity();
+                    InputStream instream = entity != null
+                        ? entity.getContent()
+                        : new ByteArrayInputStream(new byte[0]);
+
+                    // Gzip decoding
+                    Header contentEncoding = response.getFirstHeader("Content-Encoding");
+                    if (contentEncoding != null && contentEncoding.getValue().equalsIgnoreCase("gzip")) {
+                        instream = new GZIPInputStream(instream);
+                    }
+
+                    return handler.onResponse(instream);
+                } catch (Exception e) {
+                    // Aborted By cancel() or close()
+                    if (!request.isAborted())
+                        handler.onThrowable(e);
+                    throw e;
+                } finally {
+                    httpclient.getConnectionManager().shutdown();
+                }
+            }
+        });
+
+        pending.add(task);
+        try {
+            workers.execute(task);
+        } catch (RejectedExecutionException e) {
+            IOException closed = new IOException("Transport Closed");
+            task._fail(closed);
+            handler.onThrowable(closed);
+        }
+        return task;
+    }
+
+    public void close() {
+        workers.shutdown();
+
+        Request[] requests;
+        synchronized (pending) {
+            requests = pending.toArray(new Request[pending.size()]);
+        }
+        for (Request r : requests) {
+            r.cancel(true);
+        }
+    }
+
+    /**
+     * Request
+     *
+     * Future of a request that aborts its HttpGet when cancelled.
+     */
+    private class Request extends FutureTask<JSONArray> {
+        private final HttpGet request;
+
+        Request( HttpGet request, Callable<JSONArray> call ) {
+            super(call);
+            this.request = request;
+        }
+
+        void _fail( Throwable t ) {
+            setException(t);
+        }
+
+        @Override
+        public boolean cancel( boolean interrupt ) {
+            boolean cancelled = super.cancel(interrupt);
+            if (cancelled)
+                request.abort();
+            return cancelled;
+        }
+
+        @Override
+        protected void done() {
+            pending.remove(this);
+        }
+    }
+}
@@ -1,55 +1,31 @@
 package com.aimx.androidpubnub;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.Callable;
-import java.util.concurrent.FutureTask;
-import java.util.zip.GZIPInputStream;
 
-import org.apache.http.Header;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.impl.client.DefaultHttpClient;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
-
-import pubnub.PubnubCrypto;
+import org.json.JSONTokener;
 
 /**
  * PubNub 3.1 Real-time Push Cloud API
- * 
+ *
+ * Android front of the Java client. Requests, the subscribe loop, history
+ * and encryption are those of pubnub.Pubnub from pubnub-3.1-android.jar,
+ * sent through HttpClientTransport unless another transport is given.
+ * Messages and responses are passed as Android's org.json types.
+ *
  * @author Stephen Blum
  * @package pubnub
  */
 public class Pubnub {
-    private String ORIGIN        = "pubsub.pubnub.com";
-    private String PUBLISH_KEY   = "pub-75a3aad0-d9c8-4763-8838-9aae1226ed0c";
-    private String SUBSCRIBE_KEY = "sub-fdd15440-8939-11e1-aa2b-41374c390533";
-    private String SECRET_KEY    = "";
-    private String CIPHER_KEY    = "";
-    private boolean SSL          = false;
-    private class ChannelStatus {
-        String channel; 
-        boolean connected, first;
-    }
-    private List<ChannelStatus> subscriptions;
+    private final pubnub.Pubnub core;
 
     /**
      * PubNub 3.1 with Cipher Key
      *
      * Prepare PubNub State.
-     * 
+     *
      * @param String Publish Key.
      * @param String Subscribe Key.
      * @param String Secret Key.
@@ -63,7 +39,32 @@ public class Pubnub {
         String cipher_key,
         boolean ssl_on
     ) {
-        this.init( publish_key, subscribe_key, secret_key, cipher_key, ssl_on );
+        this( publish_key, subscribe_key, secret_key, cipher_key, ssl_on, new HttpClientTransport() );
+    }
+
+    /**
+     * PubNub 3.1 with Transport
+     *
+     * Prepare PubNub State with the HTTP transport to send requests on.
+     *
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     * @param String Secret Key.
+     * @param String Cipher Key.
+     * @param boolean SSL Enabled.
+     * @param Transport transport for all requests.
+     */
+    public Pubnub(
+        String publish_key,
+        String subscribe_key,
+        String secret_key,
+        String cipher_key,
+        boolean ssl_on,
+        pubnub.transport.Transport transport
+    ) {
+        this.core = new pubnub.Pubnub(
+            publish_key, subscribe_key, secret_key, cipher_key, ssl_on, transport
+        );
     }
 
     /**
@@ -82,7 +83,7 @@ public class Pubnub {
         String secret_key,
         boolean ssl_on
     ) {
-        this.init( publish_key, subscribe_key, secret_key, "", ssl_on );
+        this( publish_key, subscribe_key, secret_key, "", ssl_on );
     }
 
     /**
@@ -97,7 +98,7 @@ public class Pubnub {
         String publish_key,
         String subscribe_key
     ) {
-        this.init( publish_key, subscribe_key, "", "", false );
+        this( publish_key, subscribe_key, "", "", false );
     }
 
     /**
@@ -114,7 +115,7 @@ public class Pubnub {
         String subscribe_key,
         String secret_key
     ) {
-        this.init( publish_key, subscribe_key, secret_key, "", false );
+        this( publish_key, subscribe_key, secret_key, "", false );
     }
 
     /**
@@ -135,18 +136,7 @@ public class Pubnub {
         String cipher_key,
         boolean ssl_on
     ) {
-        this.PUBLISH_KEY   = publish_key;
-        this.SUBSCRIBE_KEY = subscribe_key;
-        this.SECRET_KEY    = secret_key;
-        this.CIPHER_KEY    = cipher_key;
-        this.SSL           = ssl_on;
-
-        // SSL On?
-        if (this.SSL) {
-            this.ORIGIN = "https://" + this.ORIGIN;
-        } else {
-            this.ORIGIN = "http://" + this.ORIGIN;
-        }
+        this.core.init( publish_key, subscribe_key, secret_key, cipher_key, ssl_on );
     }
 
     /**
@@ -174,80 +164,9 @@ public class Pubnub {
      * @return JSONArray.
      */
     public JSONArray publish( HashMap<String, Object> args ) {
-
-        String channel = (String) args.get("channel");
-        Object message= args.get("message");
-        
-        if(message instanceof JSONObject) {
-            JSONObject obj=(JSONObject)message;
-            if(this.CIPHER_KEY.length() > 0){
-                // Encrypt Message
-                PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-                message = pc.encrypt(obj);
-            } else {
-                message = obj;
-            }
-
-        } else if (message instanceof String) {
-            String obj = (String) message;
-            if (this.CIPHER_KEY.length() > 0) {
-                // Encrypt Message
-                PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-                try {
-                    message = pc.encrypt(obj);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            } else {
-                message = obj;
-            }
-            message = "\"" + message + "\"";
-
-        } else if (message instanceof JSONArray) {
-            JSONArray obj = (JSONArray) message;
-
-            if (this.CIPHER_KEY.length() > 0) {
-                // Encrypt Message
-                PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-                message = pc.encryptJSONArray(obj);
-            } else {
-                message = obj;
-            }
-        }
-        System.out.println();
-
-        // Generate String to Sign
-        String signature = "0";
-
-        if (this.SECRET_KEY.length() > 0) {
-            StringBuilder string_to_sign = new StringBuilder();
-            string_to_sign
-                .append(this.PUBLISH_KEY)
-                .append('/')
-                .append(this.SUBSCRIBE_KEY)
-                .append('/')
-                .append(this.SECRET_KEY)
-                .append('/')
-                .append(channel)
-                .append('/')
-                .append(message.toString());
-
-            // Sign Message
-            signature = PubnubCrypto.getHMacSHA256(this.SECRET_KEY, string_to_sign.toString());
-        }
-
-        // Build URL
-        List<String> url = new ArrayList<String>();
-        url.add("publish");
-        url.add(this.PUBLISH_KEY);
-        url.add(this.SUBSCRIBE_KEY);
-        url.add(signature);
-        url.add(channel);
-        url.add("0");
-        url.add(message.toString());
-
-        // Return JSONArray
-        return _request(url);
+        HashMap<String, Object> core_args = new HashMap<String, Object>(args);
+        core_args.put("message", _toCore(args.get("message")));
+        return _toAndroid(this.core.publish(core_args));
     }
 
     /**
@@ -268,194 +187,15 @@ public class Pubnub {
     /**
      * Subscribe
      *
-     * Listen for a message on a channel.
+     * Listen for a message on a channel. The first call blocks until every
+     * channel is unsubscribed; later calls join the running long-poll.
      *
      * @param HashMap<String, Object> containing channel name, function callback.
      */
     public void subscribe( HashMap<String, Object> args ) {
-        args.put("timetoken", "0");
-        this._subscribe( args );
-    }
-
-    /**
-     * Subscribe - Private Interface
-     *
-     * Patch provided by petereddy on GitHub
-     *
-     * @param HashMap<String, Object> containing channel name, function callback, timetoken.
-     */
-    private void _subscribe( HashMap<String, Object> args ) {
-
-        String   channel = (String) args.get("channel");
-        String timetoken = (String) args.get("timetoken");
-        Callback callback;
-
-        // Validate Arguments
-        if (args.get("callback") != null) {
-            callback = (Callback) args.get("callback");
-        } else {
-            System.out.println("Invalid Callback.");
-            return;
-        }
-
-        if (channel == null || channel.equals("")) {
-            callback.errorCallback(channel,"Invalid Channel.");
-            return;
-        }
-
-        // Ensure Single Connection
-        if (subscriptions != null && subscriptions.size() > 0) {
-            boolean channel_exist = false;
-            for (ChannelStatus it : subscriptions) {
-                if(it.channel.equals(channel)) {
-                    channel_exist = true;
-                    break;
-                }
-            }
-            if (!channel_exist) {
-                ChannelStatus cs = new ChannelStatus();
-                cs.channel = channel;
-                cs.connected = true;
-                subscriptions.add(cs);
-            } else {
-                callback.errorCallback(channel,"Already Connected");
-                return;
-            }
-        } else {
-            // New Channel
-            ChannelStatus cs = new ChannelStatus();
-            cs.channel = channel;
-            cs.connected = true;
-            subscriptions = new ArrayList<Pubnub.ChannelStatus>();
-            subscriptions.add(cs);
-        }
-
-        while (true) {
-            try {
-                // Build URL
-                List<String> url = java.util.Arrays.asList(
-                        "subscribe", this.SUBSCRIBE_KEY, channel, "0", timetoken
-                        );
-
-                // Stop Connection?
-                boolean isDisconnected = false;
-                for (ChannelStatus it : subscriptions) {
-                    if (it.channel.equals(channel)) {
-                        if(!it.connected) {
-                            callback.disconnectCallback(channel);
-                            isDisconnected = true;
-                            break;
-                        }
-                    }
-                }
-                if (isDisconnected)
-                    return;
-
-                // Wait for Message
-                JSONArray response = _request(url);
-
-                // Stop Connection?
-                for (ChannelStatus it : subscriptions) {
-                    if (it.channel.equals(channel)) {
-                        if (!it.connected) {
-                            callback.disconnectCallback(channel);
-                            isDisconnected = true;
-                            break;
-                        }
-                    }
-                }
-
-                if (isDisconnected)
-                    return;
-
-                // Problem?
-                if (response == null || response.optInt(1) == 0) {
-                    for (ChannelStatus it : subscriptions) {
-                        if (it.channel.equals(channel)) {
-                             if(it.connected && it.first){
-                                 subscriptions.remove(it);
-                                 callback.disconnectCallback(channel);
-                             }else{
-                                 subscriptions.remove(it);
-                                 callback.errorCallback(channel,"No Network Connection");
-                             }
-                             break;
-                        }
-                    }
-                    // Ensure Connected (Call Time Function)
-                    boolean isReconnected = false;
-                    while(true) {
-                        double time_token = this.time();
-                        if (time_token == 0.0) {
-                            // Reconnect Callback
-                            callback.reconnectCallback(channel);
-                            Thread.sleep(5000);
-                        } else {
-                            this._subscribe(args);
-                            isReconnected = true;
-                            break;
-                        }
-                    }
-                    if(isReconnected) {
-                        break;
-                    }
-                } else {
-                    for (ChannelStatus it : subscriptions) {
-                        if (it.channel.equals(channel)) {
-                            // Connect Callback
-                            if (!it.first) {
-                                it.first = true;
-                                callback.connectCallback(channel);
-                             
-                                break;
-                            }
-                        }
-                    }
-                }
-
-                JSONArray messages = response.optJSONArray(0);
-
-                // Update TimeToken
-                if (response.optString(1).length() > 0)
-                    timetoken = response.optString(1);
-
-                for ( int i = 0; messages.length() > i; i++ ) {
-                    JSONObject message = messages.optJSONObject(i);
-                    if(message != null) {
-
-                        if(this.CIPHER_KEY.length() > 0){
-                            // Decrypt Message
-                            PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-                            message = pc.decrypt(message);
-                        }
-                        if(callback !=null)
-                            callback.subscribeCallback(channel, message);
-                    } else {
-
-                        JSONArray arr = messages.optJSONArray(i);
-                        if(arr != null) {
-                            if(this.CIPHER_KEY.length() > 0) {
-                                PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-                                arr=pc.decryptJSONArray(arr); ;
-                            }
-                            if(callback !=null)
-                                callback.subscribeCallback(channel,arr);
-                        } else {
-                            String msgs=messages.getString(0);
-                            if(this.CIPHER_KEY.length() > 0) {
-                                PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-                                msgs=pc.decrypt(msgs); 
-                            }
-                            if(callback !=null)
-                                callback.subscribeCallback(channel,msgs);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                try { Thread.sleep(1000); }
-                catch(InterruptedException ie) {}
-            }
-        }
+        HashMap<String, Object> core_args = new HashMap<String, Object>(args);
+        core_args.put("callback", new CallbackAdapter((Callback) args.get("callback")));
+        this.core.subscribe(core_args);
     }
 
     /**
@@ -483,25 +223,7 @@ public class Pubnub {
      * @return JSONArray of history.
      */
     public JSONArray history( HashMap<String, Object> args ) {
-
-        String channel = (String) args.get("channel");
-        int limit = Integer.parseInt(args.get("limit").toString());
-
-        List<String> url = new ArrayList<String>();
-
-        url.add("history");
-        url.add(this.SUBSCRIBE_KEY);
-        url.add(channel);
-        url.add("0");
-        url.add(Integer.toString(limit));
-
-        if (this.CIPHER_KEY.length() > 0) {
-            // Decrpyt Messages
-            PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-            return pc.decryptJSONArray(_request(url));
-        } else {
-            return _request(url);
-        }
+        return _toAndroid(this.core.history(args));
     }
 
     /**
@@ -512,13 +234,7 @@ public class Pubnub {
      * @return double timestamp.
      */
     public double time() {
-        List<String> url = new ArrayList<String>();
-
-        url.add("time");
-        url.add("0");
-
-        JSONArray response = _request(url);
-        return response.optDouble(0);
+        return this.core.time();
     }
 
     /**
@@ -529,8 +245,7 @@ public class Pubnub {
      * @return String uuid.
      */
     public static String uuid() {
-        UUID uuid = UUID.randomUUID();
-        return uuid.toString();
+        return pubnub.Pubnub.uuid();
     }
 
     /**
@@ -541,144 +256,87 @@ public class Pubnub {
      * @param HashMap<String, Object> containing channel name.
      */
     public void unsubscribe( HashMap<String, Object> args ) {
-        String channel = (String) args.get("channel");
-        for (ChannelStatus it : subscriptions) {
-            if(it.channel.equals(channel) && it.connected) {
-                it.connected = false;
-                it.first = false;
-                break;
-            }
-        }
+        this.core.unsubscribe(args);
     }
 
     /**
-     * Request URL
+     * Shutdown
      *
-     * @param List<String> request of url directories.
-     * @return JSONArray from JSON response.
+     * Unsubscribe all channels and abort the pending long-poll.
      */
-    private JSONArray _request(List<String> url_components) {
-        String   json         = "";
-        StringBuilder url     = new StringBuilder();
-        Iterator<String> url_iterator = url_components.iterator();
+    public void shutdown() {
+        this.core.shutdown();
+    }
 
-        url.append(this.ORIGIN);
+    /**
+     * Callback Adapter
+     *
+     * Hands the messages of the Java client to an Android callback.
+     */
+    private static class CallbackAdapter implements pubnub.Callback {
+        private final Callback callback;
 
-        // Generate URL with UTF-8 Encoding
-        while (url_iterator.hasNext()) {
-            try {
-                String url_bit = (String) url_iterator.next();
-                url.append("/").append(_encodeToUTF8(url_bit));
-            } catch (Exception e) {
-                e.printStackTrace();
-                JSONArray jsono = new JSONArray();
-                try { jsono.put("Failed UTF-8 Encoding URL."); }
-                catch (Exception jsone) {}
-                return jsono;
-            }
+        CallbackAdapter( Callback callback ) {
+            this.callback = callback;
         }
 
-        try {
-            
-            PubnubHttpRequest request = new PubnubHttpRequest(url.toString());
-            FutureTask<String> task = new FutureTask<String>(request);
-            Thread t = new Thread(task);
-            t.start();
-            try {
-                json = task.get();
-            } catch (Exception e) {
-                JSONArray jsono = new JSONArray();
-
-                try {
-                    jsono.put("Failed to Concurrent HTTP Request.");
-                } catch (Exception jsone) {
-                }
-
-                e.printStackTrace();
-                System.out.println(e);
-
-                return jsono;
-            }
-
-        } catch (Exception e) {
-
-            JSONArray jsono = new JSONArray();
-
-            try { jsono.put("Failed JSONP HTTP Request."); }
-            catch (Exception jsone) {}
-
-            System.out.println(e);
-
-            return jsono;
+        public boolean subscribeCallback( String channel, Object message ) {
+            return callback.subscribeCallback( channel, _toAndroid(message) );
         }
 
-        // Parse JSON String
-        try { return new JSONArray(json); }
-        catch (Exception e) {
-            JSONArray jsono = new JSONArray();
+        public void errorCallback( String channel, Object message ) {
+            callback.errorCallback( channel, _toAndroid(message) );
+        }
 
-            try { jsono.put("Failed JSON Parsing."); }
-            catch (Exception jsone) {}
+        public void connectCallback( String channel ) {
+            callback.connectCallback(channel);
+        }
 
-            e.printStackTrace();
-            System.out.println(e);
+        public void reconnectCallback( String channel ) {
+            callback.reconnectCallback(channel);
+        }
 
-            // Return Failure to Parse
-            return jsono;
+        public void disconnectCallback( String channel ) {
+            callback.disconnectCallback(channel);
         }
     }
 
-    private class PubnubHttpRequest implements Callable<String> {
-
-        String url;
-
-        public PubnubHttpRequest(String url) {
-            this.url = url;
+    /**
+     * To Java Client JSON
+     *
+     * @param Object message, Android JSONObject and JSONArray are converted.
+     * @return Object message for pubnub.Pubnub.
+     */
+    private static Object _toCore( Object value ) {
+        if (value instanceof JSONObject || value instanceof JSONArray) {
+            try { return new pubnub.json.JSONTokener(value.toString()).nextValue(); }
+            catch (pubnub.json.JSONException e) {}
         }
+        return value;
+    }
 
-        @Override
-        public String call() throws Exception {
-            // Prepare request
-            String line = "", json = "";
-            HttpClient httpclient = new DefaultHttpClient();
-            HttpUriRequest request = new HttpGet(url);
-            request.setHeader("V", "3.1");
-            request.setHeader("User-Agent", "Java-Android");
-            request.setHeader("Accept-Encoding", "gzip");
-            httpclient.getParams().setParameter("http.connection.timeout", 310000);
-
-            // Execute request
-            HttpResponse response;
-            response = httpclient.execute(request);
-
-            HttpEntity entity = response.getEntity();
-            if (entity != null) {
-
-                // A Simple JSON Response Read
-                InputStream instream = entity.getContent();
-                BufferedReader reader = null;
-
-                // Gzip decoding
-                Header contentEncoding = response.getFirstHeader("Content-Encoding");
-                if (contentEncoding != null && contentEncoding.getValue().equalsIgnoreCase("gzip")) {
-                    reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(instream)));
-                } else {
-                    reader = new BufferedReader(new InputStreamReader(instream));
-                }
-
-                // Read JSON Message
-                while ((line = reader.readLine()) != null) {
-                    json += line;
-                }
-                reader.close();
-            }
-
-            return json;
+    /**
+     * To Android JSON
+     *
+     * @param Object message from pubnub.Pubnub.
+     * @return Object message, JSON as Android JSONObject or JSONArray.
+     */
+    private static Object _toAndroid( Object value ) {
+        if (value instanceof pubnub.json.JSONObject || value instanceof pubnub.json.JSONArray) {
+            try { return new JSONTokener(value.toString()).nextValue(); }
+            catch (JSONException e) {}
         }
+        return value;
     }
 
-    private String _encodeToUTF8(String s) throws UnsupportedEncodingException {
-    	String enc = URLEncoder.encode(s, "UTF-8").replace("+", "%20");
-    	return enc;
+    /**
+     * To Android JSON
+     *
+     * @param pubnub.json.JSONArray response from pubnub.Pubnub.
+     * @return JSONArray response.
+     */
+    private static JSONArray _toAndroid( pubnub.json.JSONArray response ) {
+        try { return new JSONArray(response.toString()); }
+        catch (JSONException e) { return new JSONArray(); }
     }
 }
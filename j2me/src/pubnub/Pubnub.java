@@ -1,9 +1,10 @@
 package pubnub;
 
 
-import com.tinyline.util.GZIPInputStream;
 import java.io.*;
 import pubnub.crypto.PubnubCrypto;
+import pubnub.transport.HttpConnectionTransport;
+import pubnub.transport.Transport;
 
 
 import java.util.Enumeration;
@@ -13,17 +14,11 @@ import java.util.Vector;
 import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.ShortBufferException;
-import javax.microedition.io.Connector;
-import javax.microedition.io.HttpConnection;
-
-import javax.microedition.io.HttpsConnection;
 import org.bouncycastle.crypto.DataLengthException;
 import org.bouncycastle.crypto.InvalidCipherTextException;
 import org.json.me.JSONArray;
 import org.json.me.JSONException;
 import org.json.me.JSONObject;
-import pubnub.util.AsyncHttpManager;
-import pubnub.util.HttpCallback;
 
 public class Pubnub {
 
@@ -35,6 +30,7 @@ public class Pubnub {
     private boolean SSL = false;
     private Callback _callback = null;
     private String current_timetoken = "0";
+    private Transport transport = new HttpConnectionTransport();
 
     private class ChannelStatus {
 
@@ -59,6 +55,24 @@ public class Pubnub {
         this.init(publish_key, subscribe_key, secret_key, cipher_key, ssl_on);
     }
 
+    /**
+     * PubNub 3.1 with Transport
+     *
+     * Prepare PubNub State with the HTTP transport to send requests on.
+     *
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     * @param String Secret Key.
+     * @param String Cipher Key.
+     * @param boolean SSL Enabled.
+     * @param Transport transport for all requests.
+     */
+    public Pubnub(String publish_key, String subscribe_key, String secret_key,
+            String cipher_key, boolean ssl_on, Transport transport) {
+        this.init(publish_key, subscribe_key, secret_key, cipher_key, ssl_on);
+        this.transport = transport;
+    }
+
     /**
      * PubNub 3.0 with SSL
      *
@@ -498,7 +512,7 @@ public class Pubnub {
      */
     private void _request(Vector url_components, final String channel) {
 
-        String request_for = (String) url_components.elementAt(0);
+        final String request_for = (String) url_components.elementAt(0);
 
         if (request_for.equals("subscribe")) {
             current_timetoken = (String) url_components.elementAt(4);
@@ -507,17 +521,18 @@ public class Pubnub {
         Hashtable _headers = new Hashtable();
         _headers.put("V", "3.1");
         _headers.put("User-Agent", "J2ME");
-        _headers.put("Accept-Encoding", "gzip");
 
-        
+        Transport.Handler handler = new Transport.Handler() {
 
-        HttpCallback callback = new HttpCallback(url.toString(), _headers, request_for) {
+            public void onResponse(InputStream body) throws Exception {
+                OnComplet(_readBody(body), request_for);
+            }
 
-            public void processResponse(HttpConnection conn, Object cookie) throws IOException {
-               
+            public void onThrowable(Throwable t) {
+                OnComplet(null, request_for);
             }
 
-            public void OnComplet(HttpConnection hc, String response, String req_for) throws IOException {
+            private void OnComplet(String response, String req_for) {
                 try {
                     String timetoken = "0";
                     //response=response.replace('+', ' ');
@@ -710,63 +725,83 @@ public class Pubnub {
             }
         };
 
-        AsyncHttpManager.getInstance().queue(callback);
+        transport.get(url, _headers, handler);
     }
 
     private char toHex(int ch) {
         return (char) (ch < 10 ? '0' + ch : 'A' + ch - 10);
     }
 
+    /**
+     * Request URL and Wait
+     *
+     * @param String full url.
+     * @return String response body.
+     */
     public final String getViaHttpsConnection(String url)
             throws IOException, ServiceProviderException {
-        HttpConnection c = null;
-        InputStream dis = null;
-        OutputStream os = null;
-        int rc;
-        String respBody = new String(""); // return empty string on bad things
-        try {
-            if (SSL) {
-                c = (HttpsConnection) Connector.open(url, Connector.READ_WRITE,
-                        false);
-            } else {
-                c = (HttpConnection) Connector.open(url, Connector.READ_WRITE,
-                        false);
+        final Object[] result = new Object[1];
+        Hashtable _headers = new Hashtable();
+        _headers.put("V", "3.1");
+        _headers.put("User-Agent", "J2ME");
+
+        Transport.Handler handler = new Transport.Handler() {
+
+            public void onResponse(InputStream body) throws Exception {
+                _done(result, _readBody(body));
             }
-            c.setRequestMethod(HttpConnection.GET);
-            c.setRequestProperty("V", "3.1");
-            c.setRequestProperty("User-Agent", "Java");
-            c.setRequestProperty("Accept-Encoding", "gzip");
-            rc = c.getResponseCode();
-            int len = c.getHeaderFieldInt("Content-Length", 0);
-            dis = c.openInputStream();
-
-            if ("gzip".equals(c.getEncoding())) 
-                    dis = new GZIPInputStream(dis);
-            
-            byte[] data = null;
-            ByteArrayOutputStream tmp = new ByteArrayOutputStream();
-            int ch;
-            while ((ch = dis.read()) != -1) {
-                tmp.write(ch);
+
+            public void onThrowable(Throwable t) {
+                _done(result, t);
             }
-            data = tmp.toByteArray();
-            respBody = new String(data, "UTF-8");
-           
-        } catch (ClassCastException e) {
-            throw new IllegalArgumentException("Not an HTTP URL");
-        } finally {
-            if (dis != null) {
-                dis.close();
+        };
+
+        synchronized (result) {
+            transport.get(url, _headers, handler);
+            while (result[0] == null) {
+                try {
+                    result.wait();
+                } catch (InterruptedException e) {
+                    throw new IOException("Interrupted");
+                }
             }
-            if (c != null) {
-                c.close();
+        }
+
+        if (result[0] instanceof ServiceProviderException) {
+            throw (ServiceProviderException) result[0];
+        }
+        if (result[0] instanceof IOException) {
+            throw (IOException) result[0];
+        }
+        if (result[0] instanceof Throwable) {
+            throw new IOException(result[0].toString());
+        }
+        return (String) result[0];
+    }
+
+    private static void _done(Object[] result, Object value) {
+        synchronized (result) {
+            if (result[0] == null) {
+                result[0] = value;
+                result.notifyAll();
             }
         }
-        if (rc != HttpConnection.HTTP_OK) {
-            throw new ServiceProviderException(
-                    "HTTP response code: " + rc, rc, respBody);
+    }
+
+    /**
+     * Read Body
+     *
+     * @param InputStream decoded response body.
+     * @return String body as UTF-8 text.
+     */
+    private static String _readBody(InputStream is) throws IOException {
+        ByteArrayOutputStream tmp = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int n;
+        while ((n = is.read(buffer)) != -1) {
+            tmp.write(buffer, 0, n);
         }
-        return respBody;
+        return new String(tmp.toByteArray(), "UTF-8");
     }
 
     public String encode(String s, String enc)
@@ -0,0 +1,72 @@
+package pubnub.transport;
+
+import com.tinyline.util.GZIPInputStream;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.Hashtable;
+import javax.microedition.io.Connector;
+import javax.microedition.io.HttpConnection;
+import pubnub.ServiceProviderException;
+
+/**
+ * PubNub 3.1 HttpConnection Transport
+ *
+ * Default J2ME transport. Each request runs on its own thread with a
+ * Generic Connection Framework HttpConnection; https urls open an
+ * HttpsConnection.
+ *
+ * @package pubnub.transport
+ */
+public class HttpConnectionTransport implements Transport {
+
+    public void get(final String url, final Hashtable headers, final Handler handler) {
+        new Thread() {
+
+            public void run() {
+                HttpConnection c = null;
+                InputStream dis = null;
+                try {
+                    c = (HttpConnection) Connector.open(url, Connector.READ_WRITE, false);
+                    c.setRequestMethod(HttpConnection.GET);
+                    if (headers != null) {
+                        Enumeration keys = headers.keys();
+                        while (keys.hasMoreElements()) {
+                            String key = (String) keys.nextElement();
+                            c.setRequestProperty(key, (String) headers.get(key));
+                        }
+                    }
+                    c.setRequestProperty("Accept-Encoding", "gzip");
+
+                    int rc = c.getResponseCode();
+                    if (rc != HttpConnection.HTTP_OK) {
+                        throw new ServiceProviderException(
+                                "HTTP response code: " + rc, rc, "");
+                    }
+
+                    dis = c.openInputStream();
+                    if ("gzip".equals(c.getEncoding())) {
+                        dis = new GZIPInputStream(dis);
+                    }
+                    handler.onResponse(dis);
+                } catch (ClassCastException e) {
+                    handler.onThrowable(new IllegalArgumentException("Not an HTTP URL"));
+                } catch (Throwable t) {
+                    handler.onThrowable(t);
+                } finally {
+                    try {
+                        if (dis != null) {
+                            dis.close();
+                        }
+                        if (c != null) {
+                            c.close();
+                        }
+                    } catch (Exception e) {
+                    }
+                }
+            }
+        }.start();
+    }
+
+    public void close() {
+    }
+}
@@ -0,0 +1,58 @@
+package pubnub.transport;
+
+import java.io.InputStream;
+import java.util.Hashtable;
+
+/**
+ * PubNub 3.1 Transport
+ *
+ * HTTP client behind a Pubnub instance. Modelled on the Transport of the
+ * Java client, which CLDC cannot run: headers come in a Hashtable and the
+ * result is delivered to the handler instead of a Future. The J2ME Pubnub
+ * keeps its own request and subscribe loop on top of it. A transport only
+ * needs the GET requests the PubNub REST API
+ * uses; it removes any gzip content encoding and hands the response body
+ * to the handler, on a thread of its own.
+ *
+ * @package pubnub.transport
+ */
+public interface Transport {
+
+    /**
+     * Response Handler
+     */
+    public interface Handler {
+
+        /**
+         * Response
+         *
+         * @param InputStream decoded response body.
+         */
+        public abstract void onResponse(InputStream body) throws Exception;
+
+        /**
+         * Failure
+         *
+         * @param Throwable why the request failed.
+         */
+        public abstract void onThrowable(Throwable t);
+    }
+
+    /**
+     * GET
+     *
+     * Send a request.
+     *
+     * @param String full url including query string.
+     * @param Hashtable request headers.
+     * @param Handler handler of the response.
+     */
+    public abstract void get(String url, Hashtable headers, Handler handler);
+
+    /**
+     * Close
+     *
+     * Release connections and threads.
+     */
+    public abstract void close();
+}
@@ -0,0 +1,153 @@
+package pubnub;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jetty.http.UriCompliance;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.io.Connection;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pubnub.transport.Http2Transport;
+import pubnub.transport.NingTransport;
+import pubnub.transport.NioTransport;
+import pubnub.transport.Transport;
+
+/**
+ * Publish latency of the Ning, NIO and HTTP/2 transports against a local
+ * Jetty stub speaking HTTP/1.1 and h2c. The number of connections the stub
+ * accepted is printed at the end of each trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransportBenchmark {
+
+    static final String CHANNEL = "benchmark";
+    static final int BURST = 100;
+
+    @Param({"ning", "nio", "http2"})
+    String transport_name;
+
+    Server server;
+    Transport transport;
+    Pubnub pubnub;
+    JSONObject message;
+    final AtomicInteger connections = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        message = new JSONObject();
+        message.put("some_val", "Hello World! --> @#$%^&*()!");
+
+        // HTTP/1.1 with h2c Upgrade and Prior Knowledge
+        server = new Server();
+        HttpConfiguration config = new HttpConfiguration();
+        config.setUriCompliance(UriCompliance.LEGACY);
+        ServerConnector connector = new ServerConnector(server,
+            new HttpConnectionFactory(config), new HTTP2CServerConnectionFactory(config));
+        connector.setHost("127.0.0.1");
+        connector.addBean(new Connection.Listener() {
+            public void onOpened(Connection connection) {
+                connections.incrementAndGet();
+            }
+        });
+        server.addConnector(connector);
+        server.setHandler(new StubHandler());
+        server.start();
+
+        if ("nio".equals(transport_name)) {
+            transport = new NioTransport(2);
+        } else if ("http2".equals(transport_name)) {
+            transport = new Http2Transport();
+        } else {
+            transport = new NingTransport();
+        }
+
+        pubnub = new Pubnub("demo", "demo", "", "", false, transport);
+        pubnub.setOrigin("127.0.0.1:" + connector.getLocalPort());
+
+        // Finish the h2c Upgrade Before Bursts Start
+        pubnub.time();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        System.out.println();
+        System.out.println(transport_name + ": " + connections.get() + " connections");
+        pubnub.shutdown();
+        transport.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public JSONArray publish() {
+        return pubnub.publish(CHANNEL, message);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public Object publishBurst() throws Exception {
+        List<Future<JSONArray>> pending = new ArrayList<Future<JSONArray>>(BURST);
+        for (int i = 0; i < BURST; i++) {
+            pending.add(pubnub.publishAsync(CHANNEL, message, null));
+        }
+        Object last = null;
+        for (Future<JSONArray> f : pending) {
+            last = f.get(10, TimeUnit.SECONDS);
+        }
+        return last;
+    }
+
+    /**
+     * Answers publish and time like the PubNub origin does.
+     */
+    static class StubHandler extends Handler.Abstract {
+        private final AtomicLong timetoken = new AtomicLong(13500000000000000L);
+
+        @Override
+        public boolean handle(
+                org.eclipse.jetty.server.Request request,
+                org.eclipse.jetty.server.Response response,
+                org.eclipse.jetty.util.Callback callback) {
+            String path = request.getHttpURI().getPath();
+            String body = path.startsWith("/publish/")
+                ? "[1,\"Sent\",\"" + timetoken.incrementAndGet() + "\"]"
+                : "[" + timetoken.incrementAndGet() + "]";
+
+            response.setStatus(200);
+            response.getHeaders().put("Content-Type", "text/javascript; charset=UTF-8");
+            response.write(true, ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8)), callback);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pubnub.crypto.Base64Encoder;
+import pubnub.crypto.PubnubCrypto;
+
+/**
+ * AES message encryption, Base64 and publish signing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CryptoBenchmark {
+
+    /** Plain text length in characters. */
+    @Param({"64", "4096"})
+    int length;
+
+    PubnubCrypto crypto;
+    PubnubCrypto.Signer signer;
+    String plain_text;
+    String cipher_text;
+    byte[] bytes;
+    String base64;
+    String string_to_sign;
+
+    @Setup
+    public void setup() throws Exception {
+        crypto = new PubnubCrypto("enigma");
+
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        plain_text = sb.toString();
+        cipher_text = crypto.encrypt(plain_text);
+
+        bytes = plain_text.getBytes("UTF-8");
+        base64 = new String(Base64Encoder.encode(bytes));
+
+        String prefix = "pub-c-a30c030e-9f9c-408d-be89-d70b336ca7a0/"
+                + "sub-c-387c90f3-c018-11e1-98c9-a5220e0555fd/"
+                + "sec-c-MTliNDE0NTAtYjY4Ni00MDRkLTllYTItNDhiZGE0N2JlYzBl/";
+        signer = new PubnubCrypto.Signer("sec-c-MTliNDE0NTAtYjY4Ni00MDRkLTllYTItNDhiZGE0N2JlYzBl", prefix);
+        string_to_sign = "hello_world/{\"text\":\"" + plain_text + "\"}";
+    }
+
+    @Benchmark
+    public String encrypt() throws Exception {
+        return crypto.encrypt(plain_text);
+    }
+
+    @Benchmark
+    public String decrypt() throws Exception {
+        return crypto.decrypt(cipher_text);
+    }
+
+    @Benchmark
+    public char[] base64Encode() {
+        return Base64Encoder.encode(bytes);
+    }
+
+    @Benchmark
+    public byte[] base64Decode() {
+        return Base64Encoder.decode(base64);
+    }
+
+    @Benchmark
+    public String getHMacSHA256() {
+        return PubnubCrypto.getHMacSHA256("sec-c-MTliNDE0NTAtYjY4Ni00MDRkLTllYTItNDhiZGE0N2JlYzBl",
+                string_to_sign);
+    }
+
+    @Benchmark
+    public String signerSign() {
+        return signer.sign(string_to_sign);
+    }
+}
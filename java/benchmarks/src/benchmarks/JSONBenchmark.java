@@ -0,0 +1,120 @@
+package benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONByteTokener;
+import org.json.JSONObject;
+import org.json.JSONReader;
+import org.json.JSONTokener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * org.json parsing and serialization of PubNub-shaped payloads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JSONBenchmark {
+
+    /** Messages in the history-like array. */
+    @Param({"1", "100"})
+    int messages;
+
+    String history;
+    byte[] history_bytes;
+    ByteBuffer history_direct;
+    String message;
+    JSONObject message_object;
+    String text;
+
+    @Setup
+    public void setup() throws Exception {
+        message_object = new JSONObject();
+        message_object.put("some_key", "Hello World! --> ɂ顶@#$%^&*()!");
+        message_object.put("count", 42);
+        message_object.put("price", 12.5);
+        message_object.put("tags", new JSONArray().put("a").put("b").put("c"));
+        message = message_object.toString();
+
+        JSONArray batch = new JSONArray();
+        for (int i = 0; i < messages; i++) {
+            batch.put(new JSONObject(message));
+        }
+        history = new JSONArray().put(batch).put("13500000000000001").toString();
+        history_bytes = history.getBytes("UTF-8");
+        history_direct = ByteBuffer.allocateDirect(history_bytes.length);
+        history_direct.put(history_bytes).flip();
+
+        text = "line one\nline \"two\"\t</script> ɂ顶 end";
+    }
+
+    @Benchmark
+    public JSONArray parseArray() throws Exception {
+        return new JSONArray(new JSONTokener(history));
+    }
+
+    @Benchmark
+    public JSONArray parseArrayReader() throws Exception {
+        return new JSONArray(new JSONTokener(new StringReader(history)));
+    }
+
+    @Benchmark
+    public JSONArray parseArrayStream() throws Exception {
+        return new JSONArray(new JSONTokener(new ByteArrayInputStream(history_bytes)));
+    }
+
+    @Benchmark
+    public JSONArray parseArrayBytes() throws Exception {
+        return new JSONArray(new JSONByteTokener(history_bytes));
+    }
+
+    @Benchmark
+    public JSONArray parseArrayDirect() throws Exception {
+        return new JSONArray(new JSONByteTokener(history_direct));
+    }
+
+    @Benchmark
+    public int readArray() throws Exception {
+        JSONReader reader = new JSONReader(new JSONByteTokener(history_bytes));
+        int count = 0;
+        reader.next();
+        reader.next();
+        while (reader.hasNext()) {
+            reader.nextValue();
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public JSONObject parseObject() throws Exception {
+        return new JSONObject(message);
+    }
+
+    @Benchmark
+    public String objectToString() {
+        return message_object.toString();
+    }
+
+    @Benchmark
+    public String quote() {
+        return JSONObject.quote(text);
+    }
+}
@@ -0,0 +1,165 @@
+package pubnub;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * URL encoding and a publish/subscribe round trip through a local
+ * stub of the PubNub REST API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PubnubBenchmark {
+
+    static final String CHANNEL = "benchmark";
+
+    String url_bit;
+    JSONObject message;
+
+    HttpServer server;
+    Pubnub pubnub;
+    Thread subscriber;
+    final BlockingQueue<String> published = new LinkedBlockingQueue<String>();
+    final BlockingQueue<Object> received = new LinkedBlockingQueue<Object>();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        url_bit = "{\"some_val\":\"Hello World! --> ɂ顶@#$%^&*()!\"}";
+        message = new JSONObject();
+        message.put("some_val", "Hello World! --> @#$%^&*()!");
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", new StubHandler());
+        server.start();
+
+        pubnub = new Pubnub("demo", "demo");
+        pubnub.setOrigin("127.0.0.1:" + server.getAddress().getPort());
+
+        final CountDownLatch connected = new CountDownLatch(1);
+        subscriber = new Thread() {
+            public void run() {
+                pubnub.subscribe(CHANNEL, new Callback() {
+                    public boolean subscribeCallback(String channel, Object message) {
+                        received.add(message);
+                        return true;
+                    }
+
+                    public void errorCallback(String channel, Object message) {}
+
+                    public void connectCallback(String channel) {
+                        connected.countDown();
+                    }
+
+                    public void reconnectCallback(String channel) {}
+
+                    public void disconnectCallback(String channel) {}
+                });
+            }
+        };
+        subscriber.start();
+        if (!connected.await(10, TimeUnit.SECONDS))
+            throw new IllegalStateException("Subscribe did not connect to the stub server.");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        HashMap<String, Object> args = new HashMap<String, Object>(1);
+        args.put("channel", CHANNEL);
+        pubnub.unsubscribe(args);
+        subscriber.join(10000);
+        pubnub.shutdown();
+        server.stop(0);
+    }
+
+    @Benchmark
+    public String encodeURIcomponent() {
+        return Pubnub._encodeURIcomponent(url_bit);
+    }
+
+    @Benchmark
+    public Object publishSubscribeRoundTrip() throws Exception {
+        pubnub.publish(CHANNEL, message);
+        Object echo = received.poll(10, TimeUnit.SECONDS);
+        if (echo == null)
+            throw new IllegalStateException("Published message was not received.");
+        return echo;
+    }
+
+    /**
+     * Answers publish, subscribe and time like the PubNub origin does:
+     * a published message is handed to the pending subscribe long-poll.
+     */
+    class StubHandler implements HttpHandler {
+        private long timetoken = 13500000000000000L;
+
+        public void handle(HttpExchange exchange) throws IOException {
+            String[] path = exchange.getRequestURI().getRawPath().split("/");
+            String body;
+
+            if ("publish".equals(path[1])) {
+                published.add(URLDecoder.decode(path[path.length - 1], "UTF-8"));
+                body = "[1,\"Sent\",\"" + _timetoken() + "\"]";
+            } else if ("subscribe".equals(path[1])) {
+                StringBuilder messages = new StringBuilder("[[");
+                if (!"0".equals(path[path.length - 1])) {
+                    try {
+                        String first = published.poll(10, TimeUnit.SECONDS);
+                        if (first != null) {
+                            messages.append(first);
+                            String next;
+                            while ((next = published.poll()) != null) {
+                                messages.append(',').append(next);
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                body = messages.append("],\"").append(_timetoken()).append("\"]").toString();
+            } else {
+                body = "[" + _timetoken() + "]";
+            }
+
+            byte[] bytes = body.getBytes("UTF-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            OutputStream os = exchange.getResponseBody();
+            os.write(bytes);
+            os.close();
+        }
+
+        private synchronized long _timetoken() {
+            return ++timetoken;
+        }
+    }
+}
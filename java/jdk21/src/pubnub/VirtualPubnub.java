@@ -0,0 +1,204 @@
+package pubnub;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.json.JSONArray;
+
+import pubnub.transport.Transport;
+
+/**
+ * PubNub 3.1 on Virtual Threads
+ *
+ * Java 21 variant of the client. Subscribe loops started through
+ * subscribeAsync() or a SubscribePublisher run on virtual threads, and
+ * publishAsync() callbacks run on a virtual thread each instead of the
+ * transport's I/O threads, so they may block. The *Async methods run a
+ * blocking call on a virtual thread without waiting. Thousands of
+ * subscriptions and pending requests cost a few kilobytes of stack each
+ * instead of a platform thread. Blocking publish(), history() and
+ * subscribe() calls run on the calling thread as in Pubnub; moving them
+ * to a virtual thread while the caller waits would save nothing.
+ *
+ * @package pubnub
+ */
+public class VirtualPubnub extends Pubnub {
+    private static final ThreadFactory VIRTUAL_THREADS =
+        Thread.ofVirtual().name("pubnub-virtual-", 0).factory();
+
+    private final ExecutorService blocking =
+        Executors.newThreadPerTaskExecutor(VIRTUAL_THREADS);
+
+    /**
+     * PubNub 3.1 with Transport on Virtual Threads
+     *
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     * @param String Secret Key.
+     * @param String Cipher Key.
+     * @param boolean SSL Enabled.
+     * @param Transport transport such as NioTransport, null for the default.
+     */
+    public VirtualPubnub(
+            String publish_key,
+            String subscribe_key,
+            String secret_key,
+            String cipher_key,
+            boolean ssl_on,
+            Transport transport
+            ) {
+        super( publish_key, subscribe_key, secret_key, cipher_key, ssl_on, transport, VIRTUAL_THREADS );
+    }
+
+    /**
+     * PubNub 3.1 with Cipher Key on Virtual Threads
+     *
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     * @param String Secret Key.
+     * @param String Cipher Key.
+     * @param boolean SSL Enabled.
+     */
+    public VirtualPubnub(
+            String publish_key,
+            String subscribe_key,
+            String secret_key,
+            String cipher_key,
+            boolean ssl_on
+            ) {
+        this( publish_key, subscribe_key, secret_key, cipher_key, ssl_on, null );
+    }
+
+    /**
+     * PubNub 3.0 on Virtual Threads
+     *
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     * @param String Secret Key.
+     * @param boolean SSL Enabled.
+     */
+    public VirtualPubnub(
+            String publish_key,
+            String subscribe_key,
+            String secret_key,
+            boolean ssl_on
+            ) {
+        this( publish_key, subscribe_key, secret_key, "", ssl_on, null );
+    }
+
+    /**
+     * PubNub 2.0 Compatibility on Virtual Threads
+     *
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     */
+    public VirtualPubnub(
+            String publish_key,
+            String subscribe_key
+            ) {
+        this( publish_key, subscribe_key, "", "", false, null );
+    }
+
+    /**
+     * PubNub 3.0 without SSL on Virtual Threads
+     *
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     * @param String Secret Key.
+     */
+    public VirtualPubnub(
+            String publish_key,
+            String subscribe_key,
+            String secret_key
+            ) {
+        this( publish_key, subscribe_key, secret_key, "", false, null );
+    }
+
+    /**
+     * Virtual Thread Factory
+     *
+     * For a SubscribeDispatcher or other threads working with this client.
+     *
+     * @return ThreadFactory creating virtual threads.
+     */
+    public static ThreadFactory threadFactory() {
+        return VIRTUAL_THREADS;
+    }
+
+    /**
+     * Run Blocking
+     *
+     * Run a blocking call such as publish(), history() or time() on its
+     * own virtual thread. Rejected after shutdown().
+     *
+     * @param Callable<T> call to run.
+     * @return Future<T> of the result.
+     */
+    public <T> Future<T> async( Callable<T> call ) {
+        return blocking.submit(call);
+    }
+
+    /**
+     * History Async
+     *
+     * @param String channel name.
+     * @param int limit history count response.
+     * @return Future<JSONArray> of history.
+     */
+    public Future<JSONArray> historyAsync( final String channel, final int limit ) {
+        return async(() -> history(channel, limit));
+    }
+
+    /**
+     * Time Async
+     *
+     * @return Future<Long> timetoken, 0 if the request failed.
+     */
+    public Future<Long> timeAsync() {
+        return async(() -> time());
+    }
+
+    /**
+     * Publish Async
+     *
+     * The callback runs on a virtual thread of its own.
+     *
+     * @param String channel name.
+     * @param Object message as JSONObject, JSONArray or String.
+     * @param PublishCallback callback for the response, may be null.
+     * @return Future<JSONArray> of the publish response.
+     */
+    @Override
+    public Future<JSONArray> publishAsync(
+            final String channel,
+            Object message,
+            final PublishCallback callback
+            ) {
+        if (callback == null)
+            return super.publishAsync(channel, message, null);
+
+        return super.publishAsync(channel, message, new PublishCallback() {
+            public void publishCallback( String channel, JSONArray response ) {
+                VIRTUAL_THREADS.newThread(() -> callback.publishCallback(channel, response)).start();
+            }
+
+            public void errorCallback( String channel, Object message ) {
+                VIRTUAL_THREADS.newThread(() -> callback.errorCallback(channel, message)).start();
+            }
+        });
+    }
+
+    /**
+     * Shutdown
+     *
+     * Also stop the executor of the *Async methods.
+     */
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        blocking.shutdown();
+    }
+}
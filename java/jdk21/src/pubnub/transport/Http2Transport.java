@@ -0,0 +1,120 @@
+package pubnub.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+import org.json.JSONArray;
+
+/**
+ * PubNub 3.1 HTTP/2 Transport
+ *
+ * Transport on the JDK's java.net.http.HttpClient. With HTTP/2, which is
+ * negotiated through ALPN on https and the h2c upgrade on http, concurrent
+ * publishes and long-polls are multiplexed as streams over one connection
+ * to the origin instead of a socket each. Origins that only speak HTTP/1.1
+ * fall back to the client's own connection pool.
+ *
+ * Response handlers run on the client's executor.
+ *
+ * @package pubnub.transport
+ */
+public class Http2Transport implements Transport {
+    private final HttpClient client;
+    private final boolean owns_client;
+    private final Duration REQUEST_TIMEOUT;
+
+    /**
+     * HTTP/2 Transport
+     *
+     * New HttpClient preferring HTTP/2 and a 310 second request timeout.
+     */
+    public Http2Transport() {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build(), 310000, true);
+    }
+
+    /**
+     * HTTP/2 Transport
+     *
+     * Use a configured HttpClient, e.g. with an SSLContext or executor.
+     * close() leaves the client open.
+     *
+     * @param HttpClient client to send requests with.
+     * @param int request timeout in milliseconds.
+     */
+    public Http2Transport( HttpClient client, int request_timeout_in_ms ) {
+        this(client, request_timeout_in_ms, false);
+    }
+
+    private Http2Transport( HttpClient client, int request_timeout_in_ms, boolean owns_client ) {
+        this.client          = client;
+        this.owns_client     = owns_client;
+        this.REQUEST_TIMEOUT = Duration.ofMillis(request_timeout_in_ms);
+    }
+
+    public Future<JSONArray> get( String url, Map<String, String> headers, Handler handler ) {
+        HttpRequest.Builder rb = HttpRequest.newBuilder(URI.create(url))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept-Encoding", "gzip")
+            .GET();
+        if (headers != null) {
+            for (Map.Entry<String, String> h : headers.entrySet()) {
+                rb.header(h.getKey(), h.getValue());
+            }
+        }
+
+        final CompletableFuture<HttpResponse<byte[]>> sent =
+            client.sendAsync(rb.build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        // Cancelling the Result Aborts the Exchange
+        final CompletableFuture<JSONArray> result = new CompletableFuture<JSONArray>() {
+            @Override
+            public boolean cancel( boolean interrupt ) {
+                sent.cancel(interrupt);
+                return super.cancel(interrupt);
+            }
+        };
+
+        sent.whenComplete((response, error) -> {
+            if (result.isDone())
+                return;
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                handler.onThrowable(cause);
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            try {
+                InputStream is = new ByteArrayInputStream(response.body());
+                if (response.headers().firstValue("Content-Encoding")
+                        .map(ce -> ce.equalsIgnoreCase("gzip")).orElse(false)) {
+                    is = new GZIPInputStream(is);
+                }
+                result.complete(handler.onResponse(is));
+            } catch (Exception e) {
+                handler.onThrowable(e);
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    public void close() {
+        if (owns_client)
+            client.shutdownNow();
+    }
+}
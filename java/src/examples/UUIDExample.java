@@ -1,10 +1,10 @@
-package examples;
-
-import pubnub.Pubnub;
-
-public class UUIDExample {
-
-    public static void main(String[] params) {
-        System.out.println(" UUID --> " + Pubnub.uuid());
-    }
-}
+package examples;
+
+import pubnub.Pubnub;
+
+public class UUIDExample {
+
+    public static void main(String[] params) {
+        System.out.println(" UUID --> " + Pubnub.uuid());
+    }
+}
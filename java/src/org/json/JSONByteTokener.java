@@ -0,0 +1,502 @@
+package org.json;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The JSONByteTokener extends the JSONTokener to read UTF-8 encoded JSON
+ * text straight from a byte array or a ByteBuffer, heap or direct, without
+ * decoding it to a String first. Structure and whitespace are scanned as
+ * bytes; only strings, keys and unquoted values are decoded, when they are
+ * taken out as values. It can back up any number of characters.
+ * <p>
+ * Malformed UTF-8 sequences decode to U+FFFD.
+ */
+public class JSONByteTokener extends JSONTokener {
+
+    private byte[]      bytes;
+    private ByteBuffer  buffer;
+    private int         start;
+    private int         end;
+    private int         pos;
+    private boolean     half;
+
+
+    /**
+     * Construct a JSONByteTokener from a byte array.
+     *
+     * @param bytes  UTF-8 encoded text.
+     */
+    public JSONByteTokener(byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+
+    /**
+     * Construct a JSONByteTokener from part of a byte array.
+     *
+     * @param bytes  UTF-8 encoded text.
+     * @param offset The index of the first byte.
+     * @param length The number of bytes.
+     */
+    public JSONByteTokener(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        this.bytes = bytes;
+        this.start = offset;
+        this.end = offset + length;
+        this.pos = offset;
+    }
+
+
+    /**
+     * Construct a JSONByteTokener from the bytes between the position and
+     * the limit of a buffer. The position and limit are not changed.
+     *
+     * @param buffer UTF-8 encoded text.
+     */
+    public JSONByteTokener(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            this.bytes = buffer.array();
+            this.start = buffer.arrayOffset() + buffer.position();
+            this.end = buffer.arrayOffset() + buffer.limit();
+        } else {
+            this.buffer = buffer;
+            this.start = buffer.position();
+            this.end = buffer.limit();
+        }
+        this.pos = this.start;
+    }
+
+
+    /**
+     * Get the byte at an index.
+     */
+    private byte at(int i) {
+        return bytes != null ? bytes[i] : buffer.get(i);
+    }
+
+
+    /**
+     * Get the length of the UTF-8 sequence starting at an index.
+     * @param i An index before the end.
+     * @return 2, 3 or 4 for a well-formed multi-byte sequence, or minus
+     *  the length of the malformed part, which decodes to one U+FFFD.
+     */
+    private int sequence(int i) {
+        int b = at(i) & 0xFF;
+        int n;
+        int min = 0x80;
+        int max = 0xBF;
+        if (b < 0xC2) {
+            return -1;
+        } else if (b < 0xE0) {
+            n = 2;
+        } else if (b < 0xF0) {
+            n = 3;
+            if (b == 0xE0) {
+                min = 0xA0;
+            } else if (b == 0xED) {
+                max = 0x9F;
+            }
+        } else if (b < 0xF5) {
+            n = 4;
+            if (b == 0xF0) {
+                min = 0x90;
+            } else if (b == 0xF4) {
+                max = 0x8F;
+            }
+        } else {
+            return -1;
+        }
+        if (i + 1 >= end) {
+            return -1;
+        }
+        int c = at(i + 1) & 0xFF;
+        if (c < min || c > max) {
+            return -1;
+        }
+        for (int j = 2; j < n; j += 1) {
+            if (i + j >= end || (at(i + j) & 0xC0) != 0x80) {
+                return -j;
+            }
+        }
+        return n;
+    }
+
+
+    /**
+     * Decode the code point of the sequence starting at an index.
+     * @param i An index before the end.
+     * @param n The length of the sequence, negative if malformed.
+     * @return The code point, or U+FFFD for a malformed byte.
+     */
+    private int codePoint(int i, int n) {
+        int b = at(i);
+        switch (n) {
+        case 2:
+            return (b & 0x1F) << 6 | at(i + 1) & 0x3F;
+        case 3:
+            return (b & 0x0F) << 12 | (at(i + 1) & 0x3F) << 6 |
+                    at(i + 2) & 0x3F;
+        case 4:
+            return (b & 0x07) << 18 | (at(i + 1) & 0x3F) << 12 |
+                    (at(i + 2) & 0x3F) << 6 | at(i + 3) & 0x3F;
+        default:
+            return b >= 0 ? b : 0xFFFD;
+        }
+    }
+
+
+    /**
+     * Decode a range of bytes into a String.
+     * @param from The index of the first byte.
+     * @param to   The index after the last byte.
+     * @return The decoded text.
+     */
+    private String decode(int from, int to) {
+        char[] chars = new char[to - from];
+        int n = 0;
+        int i = from;
+        while (i < to) {
+            byte b = at(i);
+            if (b >= 0) {
+                chars[n++] = (char) b;
+                i += 1;
+            } else {
+                int k = sequence(i);
+                int cp = codePoint(i, k);
+                if (k == 4) {
+                    chars[n++] = (char) ((cp >>> 10) + 0xD7C0);
+                    chars[n++] = (char) ((cp & 0x3FF) + 0xDC00);
+                } else {
+                    chars[n++] = (char) cp;
+                }
+                i += k < 0 ? -k : k;
+            }
+        }
+        return new String(chars, 0, n);
+    }
+
+
+    /**
+     * Back up one character. Any number of characters can be backed up.
+     */
+    public void back() throws JSONException {
+        if (half) {
+            half = false;
+            return;
+        }
+        if (pos <= start) {
+            throw new JSONException("Stepping back past the start is not supported");
+        }
+        if (pos > end) {
+            pos -= 1;
+            return;
+        }
+        int p = pos - 1;
+        int q = p;
+        while (q > start && p - q < 3 && (at(q) & 0xC0) == 0x80) {
+            q -= 1;
+        }
+        if (q != p && Math.abs(sequence(q)) == pos - q) {
+            p = q;
+        }
+        pos = p;
+        half = sequence(p) == 4;
+    }
+
+
+    public boolean end() {
+        return pos > end;
+    }
+
+
+    /**
+     * Get the next character in the source. A character outside the Basic
+     * Multilingual Plane comes back as two surrogate chars.
+     *
+     * @return The next character, or 0 if past the end of the source.
+     */
+    public char next() throws JSONException {
+        int i = pos;
+        if (i >= end) {
+            pos = i + 1;
+            return 0;
+        }
+        byte b = at(i);
+        if (b >= 0) {
+            pos = i + 1;
+            return (char) b;
+        }
+        int n = sequence(i);
+        int cp = codePoint(i, n);
+        if (n == 4) {
+            if (!half) {
+                half = true;
+                return (char) ((cp >>> 10) + 0xD7C0);
+            }
+            half = false;
+            pos = i + 4;
+            return (char) ((cp & 0x3FF) + 0xDC00);
+        }
+        pos = i + (n < 0 ? -n : n);
+        return (char) cp;
+    }
+
+
+    /**
+     * Get the next n characters.
+     *
+     * @param n     The number of characters to take.
+     * @return      A string of n characters.
+     * @throws JSONException
+     *   Substring bounds error if there are not
+     *   n characters remaining in the source.
+     */
+    public String next(int n) throws JSONException {
+        if (n == 0) {
+            return "";
+        }
+
+        char[] buffer = new char[n];
+        int i = 0;
+
+        while (i < n) {
+            buffer[i] = next();
+            if (end()) {
+                throw syntaxError("Substring bounds error");
+            }
+            i += 1;
+        }
+        return new String(buffer);
+    }
+
+
+    /**
+     * Get the next char in the source, skipping whitespace.
+     * @throws JSONException
+     * @return  A character, or 0 if there are no more characters.
+     */
+    public char nextClean() throws JSONException {
+        if (half) {
+            return next();
+        }
+        int i = pos;
+        while (i < end) {
+            byte b = at(i);
+            if (b < 0) {
+                pos = i;
+                return next();
+            }
+            i += 1;
+            if (b > ' ') {
+                pos = i;
+                return (char) b;
+            }
+        }
+        pos = i + 1;
+        return 0;
+    }
+
+
+    /**
+     * Return the characters up to the next close quote character.
+     * Backslash processing is done. Runs of characters without escapes are
+     * decoded in one step.
+     * @param quote The quoting character, either
+     *      <code>"</code>&nbsp;<small>(double quote)</small> or
+     *      <code>'</code>&nbsp;<small>(single quote)</small>.
+     * @return      A String.
+     * @throws JSONException Unterminated string.
+     */
+    public String nextString(char quote) throws JSONException {
+        int i = scanString(quote, pos);
+        if (i < end && at(i) == quote) {
+            String s = decode(pos, i);
+            pos = i + 1;
+            return s;
+        }
+        StringBuffer sb = new StringBuffer(i - pos + 16);
+        sb.append(decode(pos, i));
+        pos = i;
+        for (;;) {
+            char c = next();
+            switch (c) {
+            case 0:
+            case '\n':
+            case '\r':
+                throw syntaxError("Unterminated string");
+            case '\\':
+                c = next();
+                switch (c) {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 'u':
+                    sb.append((char)Integer.parseInt(next(4), 16));
+                    break;
+                case '"':
+                case '\'':
+                case '\\':
+                case '/':
+                    sb.append(c);
+                    break;
+                default:
+                    throw syntaxError("Illegal escape.");
+                }
+                break;
+            default:
+                if (c == quote) {
+                    return sb.toString();
+                }
+                sb.append(c);
+                if (!half) {
+                    i = scanString(quote, pos);
+                    sb.append(decode(pos, i));
+                    pos = i;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Find the end of a run of plain string bytes. The bytes of multi-byte
+     * sequences are all above 0x7F, so they never match the ASCII stops.
+     * @param quote The quoting character.
+     * @param i     The index to start at.
+     * @return      The index of the first quote, backslash or line break,
+     *  or the end of the source.
+     */
+    private int scanString(char quote, int i) {
+        while (i < end) {
+            byte b = at(i);
+            if (b == quote || b == '\\' || b == '\n' || b == '\r') {
+                break;
+            }
+            i += 1;
+        }
+        return i;
+    }
+
+
+    /**
+     * Get the next value. The value can be a Boolean, Double, Integer,
+     * JSONArray, JSONObject, Long, or String, or the JSONObject.NULL object.
+     * @throws JSONException If syntax error.
+     *
+     * @return An object.
+     */
+    public Object nextValue() throws JSONException {
+        char c = nextClean();
+        String s;
+
+        switch (c) {
+            case '"':
+            case '\'':
+                return nextString(c);
+            case '{':
+                back();
+                return new JSONObject(this);
+            case '[':
+            case '(':
+                back();
+                return new JSONArray(this);
+        }
+
+        /*
+         * Unquoted text runs up to the end of the source, a control
+         * character or a formatting character. Bytes above 0x7F belong
+         * to the text.
+         */
+
+        back();
+        int from = pos;
+        int i = from;
+        while (i < end) {
+            byte b = at(i);
+            if (b >= 0 && (b < ' ' || ",:]}/\\\"[{;=#".indexOf(b) >= 0)) {
+                break;
+            }
+            i += 1;
+        }
+        pos = i;
+
+        s = decode(from, i).trim();
+        if (s.equals("")) {
+            throw syntaxError("Missing value");
+        }
+        return JSONObject.stringToValue(s);
+    }
+
+
+    /**
+     * Skip characters until the next character is the requested character.
+     * If the requested character is not found, no characters are skipped.
+     * @param to A character to skip to.
+     * @return The requested character, or zero if the requested character
+     * is not found.
+     */
+    public char skipTo(char to) throws JSONException {
+        int startPos = pos;
+        boolean startHalf = half;
+        char c;
+        do {
+            c = next();
+            if (c == 0 && end()) {
+                pos = startPos;
+                half = startHalf;
+                return 0;
+            }
+        } while (c != to);
+        back();
+        return c;
+    }
+
+
+    /**
+     * Make a printable string of this JSONByteTokener.
+     *
+     * @return " at {index} [character {character} line {line}]", where
+     *  index counts bytes.
+     */
+    public String toString() {
+        int limit = Math.min(pos, end);
+        int character = 1;
+        int line = 1;
+        char p = 0;
+        int i = start;
+        while (i < limit) {
+            byte b = at(i);
+            char c = b >= 0 ? (char) b : 0xFFFD;
+            i += b >= 0 ? 1 : Math.abs(sequence(i));
+            if (p == '\r') {
+                line += 1;
+                character = c == '\n' ? 0 : 1;
+            } else if (c == '\n') {
+                line += 1;
+                character = 0;
+            } else {
+                character += 1;
+            }
+            p = c;
+        }
+        if (pos > end) {
+            character += 1;
+        }
+        return " at " + (pos - start) + " [character " + character + " line " + line + "]";
+    }
+}
@@ -0,0 +1,417 @@
+package org.json;
+
+/**
+ * JSONReader reads a JSON text one event at a time instead of building the
+ * whole JSONObject or JSONArray, so a very large array can be walked element
+ * by element while only one element is held in memory.
+ * <p>
+ * <code>next</code> returns the next event: <code>START_ARRAY</code>,
+ * <code>END_ARRAY</code>, <code>START_OBJECT</code>, <code>END_OBJECT</code>,
+ * <code>NAME</code> (see <code>getName</code>), <code>VALUE</code> (see
+ * <code>getValue</code>) or <code>END</code> at the end of the text.
+ * <code>hasNext</code> tells if the current array or object has another
+ * element. <code>nextValue</code> reads the next element whole, as a
+ * JSONObject, JSONArray or simple value, and <code>skipValue</code> passes
+ * over it without building anything. For example, <pre>
+ * JSONReader reader = new JSONReader(new JSONTokener(inputStream));
+ * reader.next();                     // START_ARRAY
+ * while (reader.hasNext()) {
+ *     JSONObject o = (JSONObject) reader.nextValue();
+ * }
+ * reader.next();                     // END_ARRAY</pre>
+ * <p>
+ * Commas and colons are consumed for you. The reader backs up at most one
+ * character at a time, so it works over any JSONTokener, including one
+ * reading from a stream.
+ */
+public class JSONReader {
+
+    /** The start of an array. */
+    public static final int START_ARRAY = 1;
+
+    /** The end of an array. */
+    public static final int END_ARRAY = 2;
+
+    /** The start of an object. */
+    public static final int START_OBJECT = 3;
+
+    /** The end of an object. */
+    public static final int END_OBJECT = 4;
+
+    /** The name of an object member. */
+    public static final int NAME = 5;
+
+    /** A string, number, boolean or null. */
+    public static final int VALUE = 6;
+
+    /** The end of the text. */
+    public static final int END = 7;
+
+    /**
+     * What is expected next in each open array or object. Values:
+     * 'a' (an element or the end of the array),
+     * 'b' (a comma or the end of the array),
+     * 'o' (a name or the end of the object),
+     * 'p' (a comma or the end of the object),
+     * 'k' (the colon and value after a name),
+     * 'i' (the value of the text),
+     * 'd' (done).
+     */
+    private char stack[];
+
+    /**
+     * The stack top index. The bottom of the stack is the text itself.
+     */
+    private int top;
+
+    /**
+     * The name read by the last NAME event.
+     */
+    private String name;
+
+    /**
+     * The value read by the last VALUE event.
+     */
+    private Object value;
+
+    /**
+     * The tokener to read from.
+     */
+    private JSONTokener x;
+
+
+    /**
+     * Make a JSONReader over a tokener. It reads one JSON text.
+     * @param x A JSONTokener.
+     */
+    public JSONReader(JSONTokener x) {
+        this.stack = new char[16];
+        this.stack[0] = 'i';
+        this.top = 0;
+        this.x = x;
+    }
+
+
+    /**
+     * Make a JSONReader over a source string.
+     * @param source A JSON text.
+     */
+    public JSONReader(String source) {
+        this(new JSONTokener(source));
+    }
+
+
+    /**
+     * Get the number of arrays and objects that are open.
+     * @return The depth, 0 outside of any array or object.
+     */
+    public int getDepth() {
+        return this.top;
+    }
+
+
+    /**
+     * Get the name read by the last NAME event.
+     * @return The name.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+
+    /**
+     * Get the value read by the last VALUE event or by nextValue.
+     * @return A Boolean, Double, Integer, Long, String, JSONObject,
+     *  JSONArray or the JSONObject.NULL object.
+     */
+    public Object getValue() {
+        return this.value;
+    }
+
+
+    /**
+     * Determine if the current array or object has another element. In an
+     * object that is the next name; after a name it is always true.
+     * @return true if next() will not end the current array or object.
+     * @throws JSONException If the text is malformed.
+     */
+    public boolean hasNext() throws JSONException {
+        char c;
+        char mode = this.stack[this.top];
+        if (mode == 'b' || mode == 'p') {
+            c = this.x.nextClean();
+            if (c != ',' && c != ';') {
+                this.x.back();
+                return false;
+            }
+            mode = mode == 'b' ? 'a' : 'o';
+            this.stack[this.top] = mode;
+        }
+        switch (mode) {
+        case 'a':
+        case 'o':
+            c = this.x.nextClean();
+            this.x.back();
+            return c != 0 && c != ']' && c != ')' && c != '}';
+        case 'k':
+        case 'i':
+            return true;
+        default:
+            return false;
+        }
+    }
+
+
+    /**
+     * Read the next event.
+     * @return START_ARRAY, END_ARRAY, START_OBJECT, END_OBJECT, NAME,
+     *  VALUE or END.
+     * @throws JSONException If the text is malformed.
+     */
+    public int next() throws JSONException {
+        return read(false);
+    }
+
+
+    /**
+     * Read the next element whole. In an object the name of the member is
+     * read first and is available from getName.
+     * @return A Boolean, Double, Integer, Long, String, JSONObject,
+     *  JSONArray or the JSONObject.NULL object.
+     * @throws JSONException If there is no next element or the text is
+     *  malformed.
+     */
+    public Object nextValue() throws JSONException {
+        if (read(true) != VALUE) {
+            throw this.x.syntaxError("Expected a value");
+        }
+        return this.value;
+    }
+
+
+    /**
+     * Skip the next element. Strings are passed over without being
+     * decoded, and nested arrays and objects are only matched up, not
+     * checked. In an object the name of the member is read first.
+     * @throws JSONException If there is no next element or the text is
+     *  malformed.
+     */
+    public void skipValue() throws JSONException {
+        char mode = this.stack[this.top];
+        if (mode == 'o' || mode == 'p') {
+            if (read(false) != NAME) {
+                throw this.x.syntaxError("Expected a value");
+            }
+        }
+        if (!hasNext()) {
+            throw this.x.syntaxError("Expected a value");
+        }
+        mode = this.stack[this.top];
+        if (mode == 'a') {
+            this.stack[this.top] = 'b';
+        } else if (mode == 'k') {
+            colon();
+            this.stack[this.top] = 'p';
+        } else {
+            this.stack[this.top] = 'd';
+        }
+        skip(this.x.nextClean());
+        this.value = null;
+    }
+
+
+    /**
+     * Read the next event, or the next element whole.
+     * @param whole true to read an array or object as one VALUE.
+     * @return The event.
+     * @throws JSONException If the text is malformed.
+     */
+    @SuppressWarnings("fallthrough")
+    private int read(boolean whole) throws JSONException {
+        char c;
+        switch (this.stack[this.top]) {
+        case 'i':
+            this.stack[this.top] = 'd';
+            return value(whole);
+        case 'd':
+            if (this.x.nextClean() != 0) {
+                throw this.x.syntaxError("Expected the end of the text");
+            }
+            return END;
+        case 'b':
+            c = this.x.nextClean();
+            if (c == ']' || c == ')') {
+                return pop(END_ARRAY);
+            }
+            if (c != ',' && c != ';') {
+                throw this.x.syntaxError("Expected a ',' or ']'");
+            }
+            this.stack[this.top] = 'a';
+            // Fall Through to the Next Element
+        case 'a':
+            c = this.x.nextClean();
+            if (c == ']' || c == ')') {
+                return pop(END_ARRAY);
+            }
+            this.x.back();
+            this.stack[this.top] = 'b';
+            return value(whole);
+        case 'p':
+            c = this.x.nextClean();
+            if (c == '}') {
+                return pop(END_OBJECT);
+            }
+            if (c != ',' && c != ';') {
+                throw this.x.syntaxError("Expected a ',' or '}'");
+            }
+            this.stack[this.top] = 'o';
+            // Fall Through to the Next Name
+        case 'o':
+            c = this.x.nextClean();
+            if (c == '}') {
+                return pop(END_OBJECT);
+            }
+            if (c == 0) {
+                throw this.x.syntaxError("A JSONObject text must end with '}'");
+            }
+            this.x.back();
+            this.name = this.x.nextValue().toString();
+            this.stack[this.top] = 'k';
+            if (!whole) {
+                return NAME;
+            }
+            // Fall Through to the Value
+        default:
+            colon();
+            this.stack[this.top] = 'p';
+            return value(whole);
+        }
+    }
+
+
+    /**
+     * Consume the ':' after a name. '=' and '=>' are tolerated too.
+     * @throws JSONException If there is no colon.
+     */
+    private void colon() throws JSONException {
+        char c = this.x.nextClean();
+        if (c == '=') {
+            if (this.x.next() != '>') {
+                this.x.back();
+            }
+        } else if (c != ':') {
+            throw this.x.syntaxError("Expected a ':' after a key");
+        }
+    }
+
+
+    /**
+     * Read a value, opening an array or object unless it is read whole.
+     * @param whole true to read an array or object as one VALUE.
+     * @return START_ARRAY, START_OBJECT or VALUE.
+     * @throws JSONException If the value is malformed.
+     */
+    private int value(boolean whole) throws JSONException {
+        char c = this.x.nextClean();
+        if (!whole) {
+            if (c == '[' || c == '(') {
+                return push('a', START_ARRAY);
+            }
+            if (c == '{') {
+                return push('o', START_OBJECT);
+            }
+        }
+        this.x.back();
+        this.value = this.x.nextValue();
+        return VALUE;
+    }
+
+
+    /**
+     * Pass over a value.
+     * @param c The first character of the value.
+     * @throws JSONException If the value is missing or not terminated.
+     */
+    private void skip(char c) throws JSONException {
+        int depth = 0;
+        for (;;) {
+            switch (c) {
+            case 0:
+                throw this.x.syntaxError("Unterminated value");
+            case '"':
+            case '\'':
+                char q = c;
+                do {
+                    c = this.x.next();
+                    if (c == '\\') {
+                        c = this.x.next();
+                        if (c == q) {
+                            c = ' ';
+                        }
+                    }
+                    if (c == 0 || c == '\n' || c == '\r') {
+                        throw this.x.syntaxError("Unterminated string");
+                    }
+                } while (c != q);
+                break;
+            case '[':
+            case '(':
+            case '{':
+                depth += 1;
+                break;
+            case ']':
+            case ')':
+            case '}':
+                depth -= 1;
+                if (depth < 0) {
+                    throw this.x.syntaxError("Missing value");
+                }
+                break;
+            default:
+                if (depth == 0) {
+                    if (",:;=/#".indexOf(c) >= 0) {
+                        throw this.x.syntaxError("Missing value");
+                    }
+                    while (c >= ' ' && ",:]}/\\\"[{;=#".indexOf(c) < 0) {
+                        c = this.x.next();
+                    }
+                    this.x.back();
+                    return;
+                }
+            }
+            if (depth == 0) {
+                return;
+            }
+            c = this.x.next();
+        }
+    }
+
+
+    /**
+     * Open an array or object.
+     * @param mode 'a' for an array, 'o' for an object.
+     * @param event The event to return.
+     * @return The event.
+     */
+    private int push(char mode, int event) {
+        this.top += 1;
+        if (this.top == this.stack.length) {
+            char[] grown = new char[this.stack.length * 2];
+            System.arraycopy(this.stack, 0, grown, 0, this.top);
+            this.stack = grown;
+        }
+        this.stack[this.top] = mode;
+        return event;
+    }
+
+
+    /**
+     * Close the current array or object.
+     * @param event The event to return.
+     * @return The event.
+     */
+    private int pop(int event) {
+        this.top -= 1;
+        return event;
+    }
+}
@@ -0,0 +1,13 @@
+package pubnub;
+
+import org.json.JSONArray;
+
+/**
+ * Callback that receives all messages of a channel from one subscribe
+ * response in a single call, decrypted and in order, together with the
+ * timetoken of the response.
+ */
+public interface BatchCallback extends Callback {
+
+	public abstract boolean batchCallback(String channel, JSONArray messages, long timetoken);
+}
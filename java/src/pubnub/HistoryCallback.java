@@ -0,0 +1,12 @@
+package pubnub;
+
+/**
+ * Callback receiving the messages of a history export one at a time,
+ * decrypted, oldest first, each with its timetoken.
+ */
+public interface HistoryCallback {
+
+	public abstract boolean historyCallback(String channel, Object message, long timetoken);
+
+	public abstract void errorCallback(String channel, Object message);
+}
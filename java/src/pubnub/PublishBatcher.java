@@ -0,0 +1,321 @@
+package pubnub;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+
+/**
+ * PubNub 3.1 Batching Publisher
+ *
+ * Collects messages per channel and releases them together once a channel
+ * has max_batch_size messages pending or its oldest message has waited
+ * linger_ms. A PubNub 3.1 publish carries one message, so a released batch
+ * is sent as publishAsync requests, started in publish order with up to
+ * max_in_flight of them pending per channel. Different channels are sent
+ * concurrently.
+ *
+ * The window trades order for throughput. With max_in_flight 1 each
+ * request waits for the previous acknowledgement, so messages reach a
+ * channel in the order they were published, at one message per round trip.
+ * A larger window keeps that many requests on the pooled connections at
+ * once; they start in order but may overtake each other on the way, and
+ * their callbacks run as they complete.
+ *
+ * @package pubnub
+ */
+public class PublishBatcher {
+    private final Pubnub pubnub;
+    private final int MAX_BATCH_SIZE;
+    private final long LINGER_MS;
+    private final int MAX_IN_FLIGHT;
+    private final ScheduledExecutorService timer;
+    private final ConcurrentMap<String, ChannelQueue> queues =
+        new ConcurrentHashMap<String, ChannelQueue>();
+
+    private final AtomicInteger queue_depth = new AtomicInteger();
+    private final AtomicInteger in_flight = new AtomicInteger();
+    private final AtomicLong batch_count = new AtomicLong();
+    private final AtomicLong message_count = new AtomicLong();
+    private final AtomicInteger max_batch = new AtomicInteger();
+    private volatile boolean shutdown = false;
+
+    private class Pending {
+        Object message;
+        PublishCallback callback;
+    }
+
+    private class ChannelQueue {
+        String channel;
+        List<Pending> pending = new ArrayList<Pending>();
+        LinkedList<Pending> outgoing = new LinkedList<Pending>();
+        ScheduledFuture<?> linger;
+        int sending;
+        boolean draining;
+    }
+
+    /**
+     * Batching Publisher
+     *
+     * Send one message per channel at a time, in publish order.
+     *
+     * @param Pubnub instance to publish with.
+     * @param int max messages per batch and channel.
+     * @param long max time in milliseconds a message waits for its batch.
+     */
+    public PublishBatcher( Pubnub pubnub, int max_batch_size, long linger_ms ) {
+        this( pubnub, max_batch_size, linger_ms, 1 );
+    }
+
+    /**
+     * Batching Publisher with Window
+     *
+     * @param Pubnub instance to publish with.
+     * @param int max messages per batch and channel.
+     * @param long max time in milliseconds a message waits for its batch.
+     * @param int max requests pending per channel, 1 for strict order.
+     */
+    public PublishBatcher(
+            Pubnub pubnub,
+            int max_batch_size,
+            long linger_ms,
+            int max_in_flight
+            ) {
+        if (max_in_flight < 1)
+            throw new IllegalArgumentException("max_in_flight must be positive");
+
+        this.pubnub         = pubnub;
+        this.MAX_BATCH_SIZE = max_batch_size;
+        this.LINGER_MS      = linger_ms;
+        this.MAX_IN_FLIGHT  = max_in_flight;
+        this.timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "pubnub-publish-batcher");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Publish
+     *
+     * Queue a message for the next batch of its channel.
+     *
+     * @param String channel name.
+     * @param Object message as JSONObject, JSONArray or String.
+     * @param PublishCallback callback for the response, may be null.
+     * @throws IllegalStateException after shutdown().
+     */
+    public void publish( String channel, Object message, PublishCallback callback ) {
+        if (shutdown)
+            throw new IllegalStateException("PublishBatcher is shut down");
+
+        Pending p = new Pending();
+        p.message  = message;
+        p.callback = callback;
+
+        ChannelQueue queue = queues.get(channel);
+        if (queue == null) {
+            ChannelQueue created = new ChannelQueue();
+            created.channel = channel;
+            queue = queues.putIfAbsent(channel, created);
+            if (queue == null)
+                queue = created;
+        }
+
+        int size;
+        boolean full;
+        queue_depth.incrementAndGet();
+        synchronized (queue) {
+            queue.pending.add(p);
+            size = queue.pending.size();
+            full = size >= MAX_BATCH_SIZE;
+            if (!full && size == 1) {
+                // First Message Starts Linger Time
+                final ChannelQueue lingering = queue;
+                try {
+                    queue.linger = timer.schedule(new Runnable() {
+                        public void run() {
+                            _flush(lingering);
+                        }
+                    }, LINGER_MS, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Shut Down Meanwhile
+                    full = true;
+                }
+            }
+        }
+
+        if (full)
+            _flush(queue);
+    }
+
+    /**
+     * Flush
+     *
+     * Send all pending messages now.
+     */
+    public void flush() {
+        for (ChannelQueue queue : queues.values()) {
+            _flush(queue);
+        }
+    }
+
+    /**
+     * Shutdown
+     *
+     * Send all pending messages and stop the linger timer. Later calls to
+     * publish() fail. The Pubnub instance is left running.
+     */
+    public void shutdown() {
+        shutdown = true;
+        timer.shutdownNow();
+        flush();
+    }
+
+    /**
+     * @return int messages waiting for their batch.
+     */
+    public int getQueueDepth() {
+        return queue_depth.get();
+    }
+
+    /**
+     * @return int messages released from their batch and not yet acknowledged.
+     */
+    public int getInFlight() {
+        return in_flight.get();
+    }
+
+    /**
+     * @return long batches sent.
+     */
+    public long getBatchCount() {
+        return batch_count.get();
+    }
+
+    /**
+     * @return long messages sent in batches.
+     */
+    public long getMessageCount() {
+        return message_count.get();
+    }
+
+    /**
+     * @return int largest batch sent.
+     */
+    public int getMaxBatchSize() {
+        return max_batch.get();
+    }
+
+    /**
+     * Flush Channel
+     *
+     * @param ChannelQueue queue to send.
+     */
+    private void _flush( ChannelQueue queue ) {
+        int size;
+        synchronized (queue) {
+            // Stale Linger Timer Must Not Cut the Next Batch Short
+            if (queue.linger != null) {
+                queue.linger.cancel(false);
+                queue.linger = null;
+            }
+            if (queue.pending.isEmpty())
+                return;
+            size = queue.pending.size();
+            queue.outgoing.addAll(queue.pending);
+            queue.pending = new ArrayList<Pending>();
+        }
+
+        queue_depth.addAndGet(-size);
+        batch_count.incrementAndGet();
+        message_count.addAndGet(size);
+        int max;
+        while (size > (max = max_batch.get()) && !max_batch.compareAndSet(max, size)) {}
+
+        in_flight.addAndGet(size);
+        _drain(queue);
+    }
+
+    /**
+     * Drain Channel
+     *
+     * Send released messages of a channel until its window is full. A
+     * completion that arrives while this loop runs, e.g. a
+     * request failing at once, leaves the next send to the loop instead of
+     * recursing.
+     *
+     * @param ChannelQueue queue to send from.
+     */
+    private void _drain( final ChannelQueue queue ) {
+        synchronized (queue) {
+            if (queue.draining)
+                return;
+            queue.draining = true;
+        }
+
+        for (;;) {
+            final Pending p;
+            synchronized (queue) {
+                if (queue.sending >= MAX_IN_FLIGHT || queue.outgoing.isEmpty()) {
+                    queue.draining = false;
+                    return;
+                }
+                p = queue.outgoing.removeFirst();
+                queue.sending += 1;
+            }
+
+            PublishCallback callback = new PublishCallback() {
+                public void publishCallback(String channel, JSONArray response) {
+                    _sent(queue);
+                    if (p.callback != null)
+                        p.callback.publishCallback(channel, response);
+                }
+
+                public void errorCallback(String channel, Object message) {
+                    _sent(queue);
+                    if (p.callback != null)
+                        p.callback.errorCallback(channel, message);
+                }
+            };
+            try {
+                pubnub.publishAsync(queue.channel, p.message, callback);
+            } catch (RuntimeException e) {
+                // Failed Encrypting Message
+                callback.errorCallback(queue.channel, e.toString());
+            }
+        }
+    }
+
+    /**
+     * Sent
+     *
+     * A message of a channel was acknowledged or failed; send the next
+     * one it makes room for.
+     *
+     * @param ChannelQueue queue the message came from.
+     */
+    private void _sent( ChannelQueue queue ) {
+        in_flight.decrementAndGet();
+        boolean drain;
+        synchronized (queue) {
+            queue.sending -= 1;
+            drain = !queue.draining;
+        }
+        if (drain)
+            _drain(queue);
+    }
+}
@@ -0,0 +1,10 @@
+package pubnub;
+
+import org.json.JSONArray;
+
+public interface PublishCallback {
+
+	public abstract void publishCallback(String channel, JSONArray response);
+
+	public abstract void errorCallback(String channel, Object message);
+}
@@ -1,695 +1,1808 @@
-package pubnub;
-
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.Future;
-import java.util.zip.GZIPInputStream;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
-
-import pubnub.crypto.PubnubCrypto;
-
-import com.ning.http.client.AsyncCompletionHandler;
-import com.ning.http.client.AsyncHttpClient;
-import com.ning.http.client.AsyncHttpClientConfig;
-import com.ning.http.client.AsyncHttpClientConfig.Builder;
-import com.ning.http.client.Request;
-import com.ning.http.client.RequestBuilder;
-import com.ning.http.client.Response;
-
-/**
- * PubNub 3.1 Real-time Push Cloud API
- *
- * @author Stephen Blum
- * @package pubnub
- */
-public class Pubnub {
-    private String ORIGIN        = "pubsub.pubnub.com";
-    private String PUBLISH_KEY   = "";
-    private String SUBSCRIBE_KEY = "";
-    private String SECRET_KEY    = "";
-    private String CIPHER_KEY    = "";
-    private boolean SSL          = false;
-    private class ChannelStatus {
-        String channel; 
-        boolean connected, first;
-    }
-    private List<ChannelStatus> subscriptions;
-
-    /**
-     * PubNub 3.1 with Cipher Key
-     *
-     * Prepare PubNub State.
-     * 
-     * @param String Publish Key.
-     * @param String Subscribe Key.
-     * @param String Secret Key.
-     * @param String Cipher Key.
-     * @param boolean SSL Enabled.
-     */
-    public Pubnub(
-            String publish_key,
-            String subscribe_key,
-            String secret_key,
-            String cipher_key,
-            boolean ssl_on
-            ) {
-        this.init( publish_key, subscribe_key, secret_key, cipher_key, ssl_on );
-    }
-
-    /**
-     * PubNub 3.0
-     *
-     * Prepare PubNub Class State.
-     *
-     * @param String Publish Key.
-     * @param String Subscribe Key.
-     * @param String Secret Key.
-     * @param boolean SSL Enabled.
-     */
-    public Pubnub(
-            String publish_key,
-            String subscribe_key,
-            String secret_key,
-            boolean ssl_on
-            ) {
-        this.init( publish_key, subscribe_key, secret_key, "", ssl_on );
-    }
-
-    /**
-     * PubNub 2.0 Compatibility
-     *
-     * Prepare PubNub Class State.
-     *
-     * @param String Publish Key.
-     * @param String Subscribe Key.
-     */
-    public Pubnub(
-            String publish_key,
-            String subscribe_key
-            ) {
-        this.init( publish_key, subscribe_key, "", "", false );
-    }
-
-    /**
-     * PubNub 3.0 without SSL
-     *
-     * Prepare PubNub Class State.
-     *
-     * @param String Publish Key.
-     * @param String Subscribe Key.
-     * @param String Secret Key.
-     */
-    public Pubnub(
-            String publish_key,
-            String subscribe_key,
-            String secret_key
-            ) {
-        this.init( publish_key, subscribe_key, secret_key, "", false );
-    }
-
-    /**
-     * Init
-     *
-     * Prepare PubNub Class State.
-     *
-     * @param String Publish Key.
-     * @param String Subscribe Key.
-     * @param String Secret Key.
-     * @param String Cipher Key.
-     * @param boolean SSL Enabled.
-     */
-    public void init(
-            String publish_key,
-            String subscribe_key,
-            String secret_key,
-            String cipher_key,
-            boolean ssl_on
-            ) {
-        this.PUBLISH_KEY   = publish_key;
-        this.SUBSCRIBE_KEY = subscribe_key;
-        this.SECRET_KEY    = secret_key;
-        this.CIPHER_KEY    = cipher_key;
-        this.SSL           = ssl_on;
-
-        // SSL On?
-        if (this.SSL) {
-            this.ORIGIN = "https://" + this.ORIGIN;
-        }
-        else {
-            this.ORIGIN = "http://" + this.ORIGIN;
-        }
-    }
-
-    /**
-     * Publish
-     *
-     * Send a message to a channel.
-     *
-     * @param String channel name.
-     * @param JSONObject message.
-     * @return JSONArray.
-     */
-    public JSONArray publish( String channel, JSONObject message ) {
-        HashMap<String, Object> args = new HashMap<String, Object>(2);
-        args.put("channel", channel);
-        args.put("message", message);
-        return publish( args );
-    }
-
-    /**
-     * Publish
-     *
-     * Send a message to a channel.
-     *
-     * @param HashMap<String, Object> containing channel name, message.
-     * @return JSONArray.
-     */
-    public JSONArray publish( HashMap<String, Object> args ) {
-
-        String channel = (String) args.get("channel");
-        Object message= args.get("message");
-        
-        if(message instanceof JSONObject) {
-            JSONObject obj=(JSONObject)message;
-            if(this.CIPHER_KEY.length() > 0) {
-                // Encrypt Message
-                PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-                message = pc.encrypt(obj);
-            } else {
-            	message=obj;
-            }
-            //System.out.println();
-        } else if(message instanceof String) {
-            String obj=(String)message;
-            if(this.CIPHER_KEY.length() > 0) {
-                // Encrypt Message
-                PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-                try {
-                    message = pc.encrypt(obj);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            } else {
-                message=obj;
-            }
-            message="\""+message+"\"";
-            
-        }else if(message instanceof JSONArray) {
-            JSONArray obj=(JSONArray)message;
-            
-            if(this.CIPHER_KEY.length() > 0) {
-                // Encrypt Message
-                PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-                message = pc.encryptJSONArray(obj);
-            } else {
-            	message=obj;
-            }
-            System.out.println();
-        }
-
-        // Generate String to Sign
-        String signature = "0";
-
-        if (this.SECRET_KEY.length() > 0) {
-            StringBuilder string_to_sign = new StringBuilder();
-            string_to_sign
-            .append(this.PUBLISH_KEY)
-            .append('/')
-            .append(this.SUBSCRIBE_KEY)
-            .append('/')
-            .append(this.SECRET_KEY)
-            .append('/')
-            .append(channel)
-            .append('/')
-            .append(message.toString());
-
-            // Sign Message
-            signature = PubnubCrypto.getHMacSHA256(this.SECRET_KEY, string_to_sign.toString());
-        }
-
-        // Build URL
-        List<String> url = new ArrayList<String>();
-        url.add("publish");
-        url.add(this.PUBLISH_KEY);
-        url.add(this.SUBSCRIBE_KEY);
-        url.add(signature);
-        url.add(channel);
-        url.add("0");
-        url.add(message.toString());
-    
-        return _request(url);
-    }
-
-    /**
-     * Subscribe
-     *
-     * Listen for a message on a channel.
-     *
-     * @param String channel name.
-     * @param Callback function callback.
-     */
-    public void subscribe( String channel, Callback callback ) {
-        HashMap<String, Object> args = new HashMap<String, Object>(2);
-        args.put("channel", channel);
-        args.put("callback", callback);
-        subscribe( args );
-    }
-
-    /**
-     * Subscribe
-     *
-     * Listen for a message on a channel.
-     *
-     * @param HashMap<String, Object> containing channel name, function callback.
-     */
-    public void subscribe( HashMap<String, Object> args ) {
-        args.put("timetoken", "0");
-        this._subscribe( args );
-    }
-
-    /**
-     * Subscribe - Private Interface
-     *
-     * Patch provided by petereddy on GitHub
-     *
-     * @param HashMap<String, Object> containing channel name, function callback, timetoken.
-     */
-    private void _subscribe( HashMap<String, Object> args ) {
-
-        String   channel = (String) args.get("channel");
-        String timetoken = (String) args.get("timetoken");
-        Callback callback;
-
-        // Validate Arguments
-        if (args.get("callback") != null) {
-            callback = (Callback) args.get("callback");
-        } else {
-            System.out.println("Invalid Callback.");
-            return;
-        }
-
-        if (channel == null || channel.equals("")) {
-        	callback.errorCallback(channel,"Invalid Channel.");
-            return;
-        }
-
-        // Ensure Single Connection
-        if (subscriptions != null && subscriptions.size() > 0) {
-            boolean channel_exist = false;
-            for (ChannelStatus it : subscriptions) {
-                if(it.channel.equals(channel)) {
-                    channel_exist = true;
-                    break;
-                }
-            }
-            if (!channel_exist) {
-                ChannelStatus cs = new ChannelStatus();
-                cs.channel = channel;
-                cs.connected = true;
-                subscriptions.add(cs);
-            } else {
-            	callback.errorCallback(channel,"Already Connected");
-                return;
-            }
-        } else {
-            // New Channel
-            ChannelStatus cs = new ChannelStatus();
-            cs.channel = channel;
-            cs.connected = true;
-            subscriptions = new ArrayList<Pubnub.ChannelStatus>();
-            subscriptions.add(cs);
-        }
-
-        while (true) {
-            try {
-                // Build URL
-                List<String> url = java.util.Arrays.asList(
-                        "subscribe", this.SUBSCRIBE_KEY, channel, "0", timetoken
-                        );
-
-                // Stop Connection?
-                boolean is_disconnect = false;
-                for (ChannelStatus it : subscriptions) {
-                    if (it.channel.equals(channel)) {
-                        if(!it.connected) {
-                        	subscriptions.remove(it);
-                            callback.disconnectCallback(channel);
-                            is_disconnect = true;
-                            break;
-                        }
-                    }
-                }
-                if (is_disconnect)
-                    return;
-
-                // Wait for Message
-                JSONArray response = _request(url);
-
-                // Stop Connection?
-                for (ChannelStatus it : subscriptions) {
-                    if (it.channel.equals(channel)) {
-                        if (!it.connected) {
-                        	subscriptions.remove(it);
-                        	callback.disconnectCallback(channel);
-                            is_disconnect = true;
-                            break;
-                        }
-                    }
-                }
-
-                if (is_disconnect)
-                    return;
-
-                // Problem?
-                if (response == null || response.optInt(1) == 0) {
-                	for (ChannelStatus it : subscriptions) {
-                        if (it.channel.equals(channel)) {
-                        	 if(it.connected && it.first){
-                                 subscriptions.remove(it);
-                                 callback.disconnectCallback(channel);
-                             }else{
-                                 subscriptions.remove(it);
-                                 callback.errorCallback(channel,"Lost Network Connection");
-                             }
-                        }
-                       
-                    }
-                    // Ensure Connected (Call Time Function)
-                	boolean is_reconnected = false;
-                    while(true) {
-                    	double time_token = this.time();
-                    	if (time_token == 0.0) {
-                            // Reconnect Callback
-                            callback.reconnectCallback(channel);
-                            Thread.sleep(5000);
-                        } else {
-                        	this._subscribe(args);
-                        	is_reconnected = true;
-                        	break;
-                        }
-                    }
-                    if(is_reconnected) {
-                    	break;
-                    }
-                } else {
-                	for (ChannelStatus it : subscriptions) {
-                        if (it.channel.equals(channel)) {
-                            // Connect Callback
-                            if (!it.first) {
-                                it.first = true;
-                                callback.connectCallback(channel);
-                             
-                                break;
-                            }
-                        }
-                    }
-                }
-
-                JSONArray messages = response.optJSONArray(0);
-
-                // Update TimeToken
-                if (response.optString(1).length() > 0)
-                    timetoken = response.optString(1);
-
-                for ( int i = 0; messages.length() > i; i++ ) {
-                    JSONObject message = messages.optJSONObject(i);
-                    if(message != null) {
-
-                        if(this.CIPHER_KEY.length() > 0){
-                            // Decrypt Message
-                            PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-                            message = pc.decrypt(message);
-                        }
-                        if(callback !=null)
-                            callback.subscribeCallback(channel, message);
-                    } else {
-
-                        JSONArray arr = messages.optJSONArray(i);
-                        if(arr != null) {
-                            if(this.CIPHER_KEY.length() > 0) {
-                                PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-                                arr=pc.decryptJSONArray(arr); ;
-                            }
-                            if(callback !=null)
-                                callback.subscribeCallback(channel,arr);
-                        } else {
-                            String msgs=messages.getString(0);
-                            if(this.CIPHER_KEY.length() > 0) {
-                                PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-                                msgs=pc.decrypt(msgs); 
-                            }
-                            if(callback !=null)
-                                callback.subscribeCallback(channel,msgs);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                try { Thread.sleep(1000); }
-                catch(InterruptedException ie) {}
-            }
-        }
-    }
-
-    /**
-     * History
-     *
-     * Load history from a channel.
-     *
-     * @param String channel name.
-     * @param int limit history count response.
-     * @return JSONArray of history.
-     */
-    public JSONArray history( String channel, int limit ) {
-        HashMap<String, Object> args = new HashMap<String, Object>(2);
-        args.put("channel", channel);
-        args.put("limit", limit);
-        return history( args );
-    }
-
-    /**
-     * History
-     *
-     * Load history from a channel.
-     *
-     * @param HashMap<String, Object> containing channel name, limit history count response.
-     * @return JSONArray of history.
-     */
-    public JSONArray history( HashMap<String, Object> args ) {
-
-        String channel = (String) args.get("channel");
-        int limit = Integer.parseInt(args.get("limit").toString());
-
-        List<String> url = new ArrayList<String>();
-
-        url.add("history");
-        url.add(this.SUBSCRIBE_KEY);
-        url.add(channel);
-        url.add("0");
-        url.add(Integer.toString(limit));
-
-        JSONArray response = _request(url);
-        
-        if (this.CIPHER_KEY.length() > 0) {
-            // Decrpyt Messages
-            PubnubCrypto pc = new PubnubCrypto(this.CIPHER_KEY);
-            return pc.decryptJSONArray(response);
-        } else {
-            return response;
-        }
-    }
-
-    /**
-     * Time
-     *
-     * Timestamp from PubNub Cloud.
-     *
-     * @return double timestamp.
-     */
-    public double time() {
-        List<String> url = new ArrayList<String>();
-
-        url.add("time");
-        url.add("0");
-
-        JSONArray response = _request(url);
-        
-        return response.optDouble(0);
-    }
-
-    /**
-     * UUID
-     *
-     * 32 digit UUID generation at client side.
-     *
-     * @return String uuid.
-     */
-    public static String uuid() {
-        UUID uuid = UUID.randomUUID();
-        return uuid.toString();
-    }
-
-    /**
-     * Unsubscribe
-     *
-     * Unsubscribe/Disconnect to channel.
-     *
-     * @param HashMap<String, Object> containing channel name.
-     */
-    public void unsubscribe( HashMap<String, Object> args ) {
-        String channel = (String) args.get("channel");
-        for (ChannelStatus it : subscriptions) {
-            if(it.channel.equals(channel) && it.connected) {
-                it.connected = false;
-                it.first = false;
-                break;
-            }
-        }
-    }
-
-    /**
-     * Request URL
-     *
-     * @param List<String> request of url directories.
-     * @return JSONArray from JSON response.
-     */
-    private JSONArray _request(List<String> url_components) {
-        String   json         = "";
-        StringBuilder url     = new StringBuilder();
-        Iterator<String> url_iterator = url_components.iterator();
-        String request_for = url_components.get(0);
-        
-        url.append(this.ORIGIN);
-
-        // Generate URL with UTF-8 Encoding
-        while (url_iterator.hasNext()) {
-            try {
-                String url_bit = (String) url_iterator.next();
-                url.append("/").append(_encodeURIcomponent(url_bit));
-            }
-            catch(Exception e) {
-                //e.printStackTrace();
-                JSONArray jsono = new JSONArray();
-                try { jsono.put("Failed UTF-8 Encoding URL."); }
-                catch (Exception jsone) {}
-                return jsono;
-            }
-        }
-        
-        AsyncHttpClient ahc = null;
-        try {
-            // Prepare Asynchronous HTTP Request
-            Builder cb = new AsyncHttpClientConfig.Builder();
-            cb.setRequestTimeoutInMs(310000);
-            AsyncHttpClientConfig config = cb.build();
-            ahc = new AsyncHttpClient(config);
-            RequestBuilder rb = new RequestBuilder("GET");
-            rb.setUrl(url.toString());
-            rb.addHeader("V", "3.1");
-            rb.addHeader("User-Agent", "Java");
-            rb.addHeader("Accept-Encoding", "gzip");
-            Request request = rb.build();
-
-            //Execute Request
-            Future<String> f = ahc.executeRequest(request, new AsyncCompletionHandler<String>() {
-
-                @Override
-                public String onCompleted(Response r) throws Exception {
-
-                    String ce = r.getHeader("Content-Encoding");
-                    InputStream resulting_is = null;
-                    InputStream is = r.getResponseBodyAsStream();
-
-                    if (ce != null && ce.equalsIgnoreCase("gzip")) {
-                        // Decoding using 'gzip'
-                        resulting_is = new GZIPInputStream(is);
-                    }
-                    else {
-                        // Default (encoding is null OR 'identity')
-                        resulting_is = is;
-                    }
-
-                    String line = "", json = "";
-                    BufferedReader reader = new BufferedReader(new InputStreamReader(resulting_is));
-
-                    // Read JSON Message
-                    while ((line = reader.readLine()) != null) { json += line; }
-
-                    reader.close();
-
-                    return json;
-                }
-            });
-            json = f.get();
-            ahc.close();
-
-        } catch (Exception e) {
-
-        	// Response If Failed JSONP HTTP Request. 
-            JSONArray jsono = new JSONArray();
-            try {
-            	if(request_for != null) {
-            		if(request_for.equals("time")) {
-            			jsono.put("0");
-            		} else if(request_for.equals("history")) {
-            			jsono.put("Error: Failed JSONP HTTP Request.");
-            		} else if(request_for.equals("publish")) {
-            			jsono.put("0");
-            			jsono.put("Error: Failed JSONP HTTP Request.");
-            		} else if(request_for.equals("subscribe")) {
-            			jsono.put("0");
-            			jsono.put("0");
-            		} 
-            	}
-            }
-            catch (Exception jsone) {}
-
-            if(ahc != null) {
-                ahc.close();
-            }
-            return jsono;
-        }
-
-        // Parse JSON String
-        try { return new JSONArray(json); }
-        catch (Exception e) {
-            JSONArray jsono = new JSONArray();
-
-            try { jsono.put("Error: Failed JSON Parsing."); }
-            catch (Exception jsone) {}
-
-            // Return Failure to Parse
-            return jsono;
-        }
-    }
-    
-    private String _encodeURIcomponent(String s) {
-        StringBuilder o = new StringBuilder();
-        for (char ch : s.toCharArray()) {
-            if (isUnsafe(ch)) {
-                o.append('%');
-                o.append(toHex(ch / 16));
-                o.append(toHex(ch % 16));
-            }
-            else o.append(ch);
-        }
-        return o.toString();
-    }
-
-    private char toHex(int ch) {
-        return (char)(ch < 10 ? '0' + ch : 'A' + ch - 10);
-    }
-
-    private boolean isUnsafe(char ch) {
-        return " ~`!@#$%^&*()+=[]\\{}|;':\",./<>?ɂ顶".indexOf(ch) >= 0;
-    }
-
-
-}
+package pubnub;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.json.JSONArray;
+import org.json.JSONByteTokener;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONReader;
+
+import pubnub.crypto.PubnubCrypto;
+import pubnub.transport.NingTransport;
+import pubnub.transport.Transport;
+
+/**
+ * PubNub 3.1 Real-time Push Cloud API
+ *
+ * @author Stephen Blum
+ * @package pubnub
+ */
+public class Pubnub {
+    private String ORIGIN        = "pubsub.pubnub.com";
+    private String PUBLISH_KEY   = "";
+    private String SUBSCRIBE_KEY = "";
+    private String SECRET_KEY    = "";
+    private String CIPHER_KEY    = "";
+    private boolean SSL          = false;
+    private int MAX_CONNECTIONS_PER_HOST = 100;
+    private int IDLE_CONNECTION_TIMEOUT  = 60000;
+    private int REQUEST_TIMEOUT          = 310000;
+    private int RECONNECT_BASE_DELAY     = 1000;
+    private int RECONNECT_MAX_DELAY      = 32000;
+    private int CATCH_UP_LIMIT           = 0;
+    private static final int HISTORY_PAGE_SIZE = 100;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final boolean[] URI_SAFE = new boolean[128];
+    static {
+        for (char ch = 'a'; ch <= 'z'; ch++) URI_SAFE[ch] = true;
+        for (char ch = 'A'; ch <= 'Z'; ch++) URI_SAFE[ch] = true;
+        for (char ch = '0'; ch <= '9'; ch++) URI_SAFE[ch] = true;
+        URI_SAFE['-'] = true;
+        URI_SAFE['_'] = true;
+    }
+    private volatile Transport transport;
+    private Transport default_transport;
+    private PubnubCrypto crypto;
+    private PubnubCrypto.Signer signer;
+    private volatile SubscribeDispatcher dispatcher;
+    private class ChannelStatus {
+        String channel; 
+        Callback callback;
+        final AtomicBoolean connected = new AtomicBoolean(true);
+        final AtomicBoolean first = new AtomicBoolean(false);
+        // Timetoken Ranges Still to Replay, Only Used by the Subscribe Loop
+        final List<long[]> gaps = new ArrayList<long[]>();
+    }
+    private final ConcurrentMap<String, ChannelStatus> subscriptions =
+        new ConcurrentHashMap<String, ChannelStatus>();
+    private final AtomicBoolean subscribe_running = new AtomicBoolean(false);
+    private final AtomicInteger subscribe_version = new AtomicInteger();
+    private volatile Future<JSONArray> subscribe_request;
+    private volatile Thread subscribe_thread;
+    private final ReentrantLock subscribe_lock = new ReentrantLock();
+    private final Condition subscribe_wakeup = subscribe_lock.newCondition();
+    private volatile ThreadFactory thread_factory = new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "pubnub-subscribe");
+            t.setDaemon(true);
+            return t;
+        }
+    };
+    private final Random reconnect_jitter = new Random();
+    private enum SubscribeState { CONNECTING, CONNECTED, RECONNECTING }
+    private class CatchUpMessage {
+        long timetoken;
+        ChannelStatus status;
+        Object message;
+    }
+    private class CatchUpPage {
+        ChannelStatus status;
+        long[] gap;
+        long start;
+    }
+
+    /**
+     * PubNub 3.1 with Cipher Key
+     *
+     * Prepare PubNub State.
+     * 
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     * @param String Secret Key.
+     * @param String Cipher Key.
+     * @param boolean SSL Enabled.
+     */
+    public Pubnub(
+            String publish_key,
+            String subscribe_key,
+            String secret_key,
+            String cipher_key,
+            boolean ssl_on
+            ) {
+        this.init( publish_key, subscribe_key, secret_key, cipher_key, ssl_on );
+    }
+
+    /**
+     * PubNub 3.1 with Transport
+     *
+     * Prepare PubNub State with the HTTP transport to send requests on.
+     *
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     * @param String Secret Key.
+     * @param String Cipher Key.
+     * @param boolean SSL Enabled.
+     * @param Transport transport such as NioTransport, null for the default.
+     */
+    public Pubnub(
+            String publish_key,
+            String subscribe_key,
+            String secret_key,
+            String cipher_key,
+            boolean ssl_on,
+            Transport transport
+            ) {
+        this.init( publish_key, subscribe_key, secret_key, cipher_key, ssl_on );
+        this.transport = transport;
+    }
+
+    /**
+     * PubNub 3.1 with Transport and Thread Factory
+     *
+     * For subclasses in this package that start their own kind of threads.
+     *
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     * @param String Secret Key.
+     * @param String Cipher Key.
+     * @param boolean SSL Enabled.
+     * @param Transport transport such as NioTransport, null for the default.
+     * @param ThreadFactory factory for the threads the client starts.
+     */
+    Pubnub(
+            String publish_key,
+            String subscribe_key,
+            String secret_key,
+            String cipher_key,
+            boolean ssl_on,
+            Transport transport,
+            ThreadFactory thread_factory
+            ) {
+        this( publish_key, subscribe_key, secret_key, cipher_key, ssl_on, transport );
+        this.thread_factory = thread_factory;
+    }
+
+    /**
+     * PubNub 3.0
+     *
+     * Prepare PubNub Class State.
+     *
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     * @param String Secret Key.
+     * @param boolean SSL Enabled.
+     */
+    public Pubnub(
+            String publish_key,
+            String subscribe_key,
+            String secret_key,
+            boolean ssl_on
+            ) {
+        this.init( publish_key, subscribe_key, secret_key, "", ssl_on );
+    }
+
+    /**
+     * PubNub 2.0 Compatibility
+     *
+     * Prepare PubNub Class State.
+     *
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     */
+    public Pubnub(
+            String publish_key,
+            String subscribe_key
+            ) {
+        this.init( publish_key, subscribe_key, "", "", false );
+    }
+
+    /**
+     * PubNub 3.0 without SSL
+     *
+     * Prepare PubNub Class State.
+     *
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     * @param String Secret Key.
+     */
+    public Pubnub(
+            String publish_key,
+            String subscribe_key,
+            String secret_key
+            ) {
+        this.init( publish_key, subscribe_key, secret_key, "", false );
+    }
+
+    /**
+     * Init
+     *
+     * Prepare PubNub Class State.
+     *
+     * @param String Publish Key.
+     * @param String Subscribe Key.
+     * @param String Secret Key.
+     * @param String Cipher Key.
+     * @param boolean SSL Enabled.
+     */
+    public void init(
+            String publish_key,
+            String subscribe_key,
+            String secret_key,
+            String cipher_key,
+            boolean ssl_on
+            ) {
+        this.PUBLISH_KEY   = publish_key;
+        this.SUBSCRIBE_KEY = subscribe_key;
+        this.SECRET_KEY    = secret_key;
+        this.CIPHER_KEY    = cipher_key;
+        this.SSL           = ssl_on;
+
+        // Prefix of Every String to Sign
+        if (this.SECRET_KEY.length() > 0) {
+            this.signer = new PubnubCrypto.Signer(this.SECRET_KEY,
+                    this.PUBLISH_KEY + '/' + this.SUBSCRIBE_KEY + '/' + this.SECRET_KEY + '/');
+        } else {
+            this.signer = null;
+        }
+
+        // Derive Cipher Key Once
+        if (this.CIPHER_KEY.length() > 0) {
+            this.crypto = new PubnubCrypto(this.CIPHER_KEY);
+        } else {
+            this.crypto = null;
+        }
+
+        // SSL On?
+        if (this.SSL) {
+            this.ORIGIN = "https://" + this.ORIGIN;
+        }
+        else {
+            this.ORIGIN = "http://" + this.ORIGIN;
+        }
+    }
+
+    /**
+     * Origin
+     *
+     * Use another origin host, such as a dedicated or local server.
+     *
+     * @param String origin host with optional port.
+     */
+    public void setOrigin( String origin ) {
+        this.ORIGIN = (this.SSL ? "https://" : "http://") + origin;
+    }
+
+    /**
+     * Max Connections Per Host
+     *
+     * Size of the keep-alive connection pool to the PubNub origin.
+     * Must be set before the first request is made.
+     *
+     * @param int maximum pooled connections per host.
+     */
+    public void setMaxConnectionsPerHost( int max_connections ) {
+        this.MAX_CONNECTIONS_PER_HOST = max_connections;
+    }
+
+    /**
+     * Idle Connection Timeout
+     *
+     * Time after which an unused pooled connection is closed.
+     * Must be set before the first request is made.
+     *
+     * @param int idle timeout in milliseconds.
+     */
+    public void setIdleConnectionTimeout( int timeout_in_ms ) {
+        this.IDLE_CONNECTION_TIMEOUT = timeout_in_ms;
+    }
+
+    /**
+     * Reconnect Backoff
+     *
+     * After a failed subscribe request the loop waits a random time
+     * between zero and base_delay * 2^(attempt - 1), capped at max_delay,
+     * before it tries again, so clients do not reconnect in lockstep.
+     *
+     * @param int base delay in milliseconds.
+     * @param int max delay in milliseconds.
+     */
+    public void setReconnectBackoff( int base_delay, int max_delay ) {
+        this.RECONNECT_BASE_DELAY = base_delay;
+        this.RECONNECT_MAX_DELAY  = max_delay;
+    }
+
+    /**
+     * Publisher
+     *
+     * Reactive Streams publisher of the messages of a channel, buffering
+     * what its subscriber has not requested yet. The subscriber fails when
+     * the buffer overflows.
+     *
+     * @param String channel name.
+     * @param int max buffered messages.
+     * @return SubscribePublisher.
+     */
+    public SubscribePublisher publisher( String channel, int buffer_size ) {
+        return new SubscribePublisher(this, channel, buffer_size);
+    }
+
+    /**
+     * Publisher
+     *
+     * @param String channel name.
+     * @param int max buffered messages.
+     * @param SubscribePublisher.OverflowPolicy what to do when the buffer is full.
+     * @return SubscribePublisher.
+     */
+    public SubscribePublisher publisher(
+            String channel,
+            int buffer_size,
+            SubscribePublisher.OverflowPolicy policy
+            ) {
+        return new SubscribePublisher(this, channel, buffer_size, policy);
+    }
+
+    /**
+     * Catch-Up
+     *
+     * After a reconnect, load the messages published while the connection
+     * was down from history instead of relying on the server to still hold
+     * them for the subscribe request. The gap is fetched while the new
+     * long-poll is already waiting and is delivered before its messages.
+     *
+     * @param int max messages to replay per channel, 0 disables catch-up.
+     */
+    public void setCatchUp( int max_messages ) {
+        this.CATCH_UP_LIMIT = max_messages;
+    }
+
+    /**
+     * Dispatcher
+     *
+     * Run subscribe callbacks on the stripes of a dispatcher instead of
+     * the polling thread. Messages stay in order per channel; connect,
+     * reconnect, disconnect and error callbacks are still called inline.
+     *
+     * @param SubscribeDispatcher dispatcher, null to call inline.
+     */
+    public void setDispatcher( SubscribeDispatcher dispatcher ) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Thread Factory
+     *
+     * Threads the client starts itself, such as the subscribe loop of
+     * subscribeAsync() and SubscribePublisher, are created with this
+     * factory. Defaults to daemon platform threads.
+     *
+     * @param ThreadFactory factory for client threads.
+     */
+    public void setThreadFactory( ThreadFactory thread_factory ) {
+        this.thread_factory = thread_factory;
+    }
+
+    /**
+     * Transport
+     *
+     * Send requests through a transport such as NioTransport instead of
+     * the default NingTransport. A transport may be shared by many
+     * Pubnub instances; shutdown() leaves it open.
+     *
+     * @param Transport transport for all requests, null for the default.
+     */
+    public void setTransport( Transport transport ) {
+        this.transport = transport;
+    }
+
+    /**
+     * Shutdown
+     *
+     * Unsubscribe all channels, abort the in-flight subscribe request and
+     * close the pooled HTTP client to release its connections and threads.
+     * A later request will open a new client.
+     */
+    public void shutdown() {
+        for (String channel : subscriptions.keySet()) {
+            _unsubscribe(channel);
+        }
+
+        // Wait for Subscribe Loop to Stop
+        subscribe_lock.lock();
+        try {
+            while (subscribe_running.get() && subscribe_thread != Thread.currentThread()) {
+                try { subscribe_wakeup.await(); }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } finally {
+            subscribe_lock.unlock();
+        }
+
+        synchronized (this) {
+            if (this.default_transport != null) {
+                this.default_transport.close();
+                this.default_transport = null;
+            }
+        }
+    }
+
+    /**
+     * Publish
+     *
+     * Send a message to a channel.
+     *
+     * @param String channel name.
+     * @param JSONObject message.
+     * @return JSONArray.
+     */
+    public JSONArray publish( String channel, JSONObject message ) {
+        HashMap<String, Object> args = new HashMap<String, Object>(2);
+        args.put("channel", channel);
+        args.put("message", message);
+        return publish( args );
+    }
+
+    /**
+     * Publish
+     *
+     * Send a message to a channel.
+     *
+     * @param HashMap<String, Object> containing channel name, message.
+     * @return JSONArray.
+     */
+    public JSONArray publish( HashMap<String, Object> args ) {
+
+        String channel = (String) args.get("channel");
+        Object message = args.get("message");
+
+        return _request(_publishURL(channel, message));
+    }
+
+    /**
+     * Publish Async
+     *
+     * Send a message to a channel without waiting for the response.
+     *
+     * @param String channel name.
+     * @param Object message as JSONObject, JSONArray or String.
+     * @return Future<JSONArray> of the publish response.
+     */
+    public Future<JSONArray> publishAsync( String channel, Object message ) {
+        return publishAsync( channel, message, null );
+    }
+
+    /**
+     * Publish Async
+     *
+     * Send a message to a channel without waiting for the response.
+     * The callback is invoked on a thread of the transport once the
+     * response arrives or the request fails. NioTransport runs it on a
+     * worker thread, where it may block; on other transports keep it
+     * short and make no blocking calls from it.
+     *
+     * @param String channel name.
+     * @param Object message as JSONObject, JSONArray or String.
+     * @param PublishCallback callback for the response, may be null.
+     * @return Future<JSONArray> of the publish response.
+     */
+    public Future<JSONArray> publishAsync(
+            final String channel,
+            Object message,
+            final PublishCallback callback
+            ) {
+        ResponseHandler handler = new ResponseHandler() {
+            @Override
+            public JSONArray onResponse(InputStream body) throws Exception {
+                JSONArray response = super.onResponse(body);
+                if (callback != null)
+                    callback.publishCallback(channel, response);
+                return response;
+            }
+
+            @Override
+            public void onThrowable(Throwable t) {
+                if (callback != null)
+                    callback.errorCallback(channel, "Error: Failed JSONP HTTP Request.");
+            }
+        };
+        return _requestAsync(_publishURL(channel, message), handler);
+    }
+
+    /**
+     * Publish URL
+     *
+     * Encrypt and sign a message and build its publish URL.
+     *
+     * @param String channel name.
+     * @param Object message.
+     * @return List<String> of url directories.
+     */
+    private List<String> _publishURL( String channel, Object message ) {
+        if(message instanceof JSONObject) {
+            JSONObject obj=(JSONObject)message;
+            if(this.CIPHER_KEY.length() > 0) {
+                // Encrypt Message
+                message = this.crypto.encrypt(obj);
+            } else {
+            	message=obj;
+            }
+        } else if(message instanceof String) {
+            String obj=(String)message;
+            if(this.CIPHER_KEY.length() > 0) {
+                // Encrypt Message
+                try {
+                    message = this.crypto.encrypt(obj);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            } else {
+                message=obj;
+            }
+            message="\""+message+"\"";
+            
+        }else if(message instanceof JSONArray) {
+            JSONArray obj=(JSONArray)message;
+            
+            if(this.CIPHER_KEY.length() > 0) {
+                // Encrypt Message
+                message = this.crypto.encryptJSONArray(obj);
+            } else {
+            	message=obj;
+            }
+        }
+
+        // Generate String to Sign
+        String message_string = message.toString();
+        String signature = "0";
+
+        if (this.signer != null) {
+            StringBuilder string_to_sign = new StringBuilder(
+                    channel.length() + 1 + message_string.length());
+            string_to_sign
+            .append(channel)
+            .append('/')
+            .append(message_string);
+
+            // Sign Message
+            signature = this.signer.sign(string_to_sign.toString());
+        }
+
+        // Build URL
+        List<String> url = new ArrayList<String>();
+        url.add("publish");
+        url.add(this.PUBLISH_KEY);
+        url.add(this.SUBSCRIBE_KEY);
+        url.add(signature);
+        url.add(channel);
+        url.add("0");
+        url.add(message_string);
+
+        return url;
+    }
+
+    /**
+     * Subscribe
+     *
+     * Listen for a message on a channel. Interrupting the polling thread
+     * unsubscribes every channel and returns.
+     *
+     * @param String channel name.
+     * @param Callback function callback.
+     */
+    public void subscribe( String channel, Callback callback ) {
+        HashMap<String, Object> args = new HashMap<String, Object>(2);
+        args.put("channel", channel);
+        args.put("callback", callback);
+        subscribe( args );
+    }
+
+    /**
+     * Subscribe
+     *
+     * Listen for a message on a channel.
+     *
+     * All channels of this instance share a single long-poll. The first
+     * call runs the subscribe loop on the calling thread and returns once
+     * every channel is unsubscribed; later calls add their channel to the
+     * running loop and return immediately.
+     *
+     * @param HashMap<String, Object> containing channel name, function callback.
+     */
+    public void subscribe( HashMap<String, Object> args ) {
+        args.put("timetoken", 0L);
+        this._subscribe( args );
+    }
+
+    /**
+     * Subscribe Async
+     *
+     * Subscribe on a thread from the thread factory instead of blocking
+     * the calling thread.
+     *
+     * @param String channel name.
+     * @param Callback function callback.
+     * @return Thread running the subscribe call.
+     */
+    public Thread subscribeAsync( final String channel, final Callback callback ) {
+        Thread t = thread_factory.newThread(new Runnable() {
+            public void run() {
+                subscribe(channel, callback);
+            }
+        });
+        t.start();
+        return t;
+    }
+
+    /**
+     * Subscribe - Private Interface
+     *
+     * Patch provided by petereddy on GitHub
+     *
+     * @param HashMap<String, Object> containing channel name, function callback, timetoken.
+     */
+    private void _subscribe( HashMap<String, Object> args ) {
+
+        String   channel = (String) args.get("channel");
+        long   timetoken = ((Number) args.get("timetoken")).longValue();
+        Callback callback;
+
+        // Validate Arguments
+        if (args.get("callback") != null) {
+            callback = (Callback) args.get("callback");
+        } else {
+            System.out.println("Invalid Callback.");
+            return;
+        }
+
+        if (channel == null || channel.equals("")) {
+            _refuse(channel, callback, "Invalid Channel.");
+            return;
+        }
+
+        // Ensure Single Connection
+        ChannelStatus cs = new ChannelStatus();
+        cs.channel = channel;
+        cs.callback = callback;
+        if (subscriptions.putIfAbsent(channel, cs) != null) {
+            _refuse(channel, callback, "Already Connected");
+            return;
+        }
+
+        // Join Running Subscribe Loop
+        if (!subscribe_running.compareAndSet(false, true)) {
+            _restartSubscribe();
+            return;
+        }
+
+        subscribe_thread = Thread.currentThread();
+        _subscribeLoop(timetoken);
+    }
+
+    /**
+     * Refuse Subscribe
+     *
+     * Tell a callback its channel was not subscribed.
+     *
+     * @param String channel name.
+     * @param Callback of the refused subscribe.
+     * @param String reason passed to errorCallback.
+     */
+    private static void _refuse( String channel, Callback callback, String reason ) {
+        if (callback instanceof SubscribePublisher.Refusal)
+            ((SubscribePublisher.Refusal) callback).subscribeRefused(reason);
+        callback.errorCallback(channel, reason);
+    }
+
+    /**
+     * Subscribe Loop
+     *
+     * Long-poll the comma-joined set of subscribed channels and dispatch
+     * each message to the callback of its channel. Runs until no channel
+     * is left.
+     *
+     * A failed request moves the loop from CONNECTED to RECONNECTING, which
+     * backs off with full jitter and checks the network with time() before
+     * it polls again from the last timetoken received. With catch-up on,
+     * the poll starts at the server time instead and the gap up to it is
+     * replayed from history. Each channel keeps the ranges it still has to
+     * replay: a range shrinks as its pages are delivered, a failed replay
+     * keeps the rest for the next round, and a reconnect right after a
+     * failed poll extends the open range instead of adding one. Ranges
+     * left over are retried on every poll, reconnecting or not, for the
+     * channels that have them only.
+     *
+     * An interrupt unsubscribes every channel, which ends the loop.
+     *
+     * @param long timetoken to start from.
+     */
+    private void _subscribeLoop( long timetoken ) {
+        SubscribeState state = SubscribeState.CONNECTING;
+        int attempt = 0;
+
+        while (true) {
+            try {
+                // Interrupted, Unsubscribe Everything and Stop
+                if (Thread.currentThread().isInterrupted()) {
+                    for (String channel : subscriptions.keySet()) {
+                        _unsubscribe(channel);
+                    }
+                }
+
+                int version = subscribe_version.get();
+                List<ChannelStatus> channels = new ArrayList<ChannelStatus>();
+
+                for (ChannelStatus cs : subscriptions.values()) {
+                    if (cs.connected.get()) {
+                        channels.add(cs);
+                    }
+                }
+
+                // Stop Connection?
+                if (channels.isEmpty()) {
+                    subscribe_request = null;
+                    subscribe_thread = null;
+                    subscribe_running.set(false);
+                    _wakeup();
+
+                    // Channel Added While Stopping?
+                    if (subscriptions.isEmpty() || !subscribe_running.compareAndSet(false, true))
+                        return;
+                    subscribe_thread = Thread.currentThread();
+                    continue;
+                }
+
+                if (state == SubscribeState.RECONNECTING) {
+                    // Back Off Before Next Attempt
+                    _pause(_backoff(attempt), version);
+                    if (subscribe_version.get() != version)
+                        continue;
+
+                    // Reconnect Callback
+                    for (ChannelStatus cs : channels) {
+                        cs.callback.reconnectCallback(cs.channel);
+                    }
+
+                    // Ensure Connected (Call Time Function)
+                    long now = this.time();
+                    if (now == 0) {
+                        attempt++;
+                        continue;
+                    }
+
+                    // Poll From Now, Replay Gap From History
+                    if (CATCH_UP_LIMIT > 0 && timetoken > 0) {
+                        if (timetoken < now) {
+                            for (ChannelStatus cs : channels) {
+                                _addGap(cs, timetoken, now);
+                            }
+                        }
+                        timetoken = now;
+                    }
+                }
+
+                // Wait for Demand
+                if (!_awaitDemand(channels, version))
+                    continue;
+
+                // Build URL
+                List<String> url = java.util.Arrays.asList(
+                        "subscribe", this.SUBSCRIBE_KEY, _join(channels), "0", Long.toString(timetoken)
+                        );
+
+                // Wait for Message
+                Future<JSONArray> f = _requestAsync(url, new ResponseHandler());
+                subscribe_request = f;
+                if (subscribe_version.get() != version)
+                    f.cancel(true);
+
+                // Catch Up While Waiting
+                List<ChannelStatus> behind = new ArrayList<ChannelStatus>();
+                for (ChannelStatus cs : channels) {
+                    if (!cs.gaps.isEmpty())
+                        behind.add(cs);
+                }
+                if (!behind.isEmpty())
+                    _catchUp(behind);
+
+                JSONArray response;
+                try {
+                    response = f.get();
+                } catch (InterruptedException e) {
+                    f.cancel(true);
+                    Thread.currentThread().interrupt();
+                    continue;
+                } catch (Exception e) {
+                    response = null;
+                }
+
+                // Channel Set Changed, Poll Again
+                if (subscribe_version.get() != version)
+                    continue;
+
+                // Problem?
+                if (response == null || response.optLong(1) == 0) {
+                    if (state != SubscribeState.RECONNECTING) {
+                        for (ChannelStatus cs : channels) {
+                            if (cs.connected.get() && cs.first.compareAndSet(true, false)) {
+                                cs.callback.disconnectCallback(cs.channel);
+                            } else {
+                                cs.callback.errorCallback(cs.channel,"Lost Network Connection");
+                            }
+                        }
+                    }
+
+                    // Resume From Last TimeToken
+                    state = SubscribeState.RECONNECTING;
+                    attempt++;
+                    continue;
+                }
+
+                state   = SubscribeState.CONNECTED;
+                attempt = 0;
+
+                for (ChannelStatus cs : channels) {
+                    // Connect Callback
+                    if (cs.connected.get() && cs.first.compareAndSet(false, true)) {
+                        cs.callback.connectCallback(cs.channel);
+                    }
+                }
+
+                JSONArray messages = response.optJSONArray(0);
+
+                // Update TimeToken
+                timetoken = response.optLong(1);
+
+                // Channel of Each Message
+                String[] message_channels = null;
+                if (response.optString(2).length() > 0)
+                    message_channels = response.optString(2).split(",");
+
+                Map<ChannelStatus, JSONArray> batches =
+                    new LinkedHashMap<ChannelStatus, JSONArray>();
+                for ( int i = 0; messages.length() > i; i++ ) {
+                    ChannelStatus cs = channels.get(0);
+                    if (message_channels != null && message_channels.length > i) {
+                        cs = subscriptions.get(message_channels[i]);
+                    }
+                    if (cs == null || !cs.connected.get())
+                        continue;
+
+                    if (!_collect(batches, cs, messages.get(i)))
+                        _deliver(cs, messages.get(i), timetoken);
+                }
+                _deliverBatches(batches, timetoken);
+            } catch (Exception e) {
+                state = SubscribeState.RECONNECTING;
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Deliver Message
+     *
+     * Decrypt a message and pass it to the callback of its channel,
+     * through the dispatcher if one is set.
+     *
+     * @param ChannelStatus channel to deliver to.
+     * @param Object message as received.
+     * @param long timetoken of the message.
+     */
+    private void _deliver(
+            final ChannelStatus cs,
+            Object message,
+            final long timetoken
+            ) throws Exception {
+        final Object decrypted = _decrypt(message);
+
+        SubscribeDispatcher dispatcher = this.dispatcher;
+        if (dispatcher == null) {
+            _callback(cs, decrypted, timetoken);
+            return;
+        }
+
+        dispatcher.dispatch(cs.channel, new Runnable() {
+            public void run() {
+                if (cs.connected.get())
+                    _callback(cs, decrypted, timetoken);
+            }
+        });
+    }
+
+    /**
+     * Collect Batch
+     *
+     * Decrypt a message into the batch of its channel if the channel has
+     * a BatchCallback.
+     *
+     * @param Map<ChannelStatus, JSONArray> batches of this response.
+     * @param ChannelStatus channel of the message.
+     * @param Object message as received.
+     * @return boolean true if the message was collected.
+     */
+    private boolean _collect(
+            Map<ChannelStatus, JSONArray> batches,
+            ChannelStatus cs,
+            Object message
+            ) throws Exception {
+        if (!(cs.callback instanceof BatchCallback))
+            return false;
+
+        JSONArray batch = batches.get(cs);
+        if (batch == null) {
+            batch = new JSONArray();
+            batches.put(cs, batch);
+        }
+        batch.put(_decrypt(message));
+        return true;
+    }
+
+    /**
+     * Deliver Batches
+     *
+     * Pass each collected batch to its BatchCallback in one call, through
+     * the dispatcher if one is set.
+     *
+     * @param Map<ChannelStatus, JSONArray> batches of this response.
+     * @param long timetoken of the response.
+     */
+    private void _deliverBatches( Map<ChannelStatus, JSONArray> batches, final long timetoken ) {
+        SubscribeDispatcher dispatcher = this.dispatcher;
+
+        for (Map.Entry<ChannelStatus, JSONArray> e : batches.entrySet()) {
+            final ChannelStatus cs = e.getKey();
+            final JSONArray batch  = e.getValue();
+
+            if (dispatcher == null) {
+                ((BatchCallback) cs.callback).batchCallback(cs.channel, batch, timetoken);
+                continue;
+            }
+
+            dispatcher.dispatchBatch(cs.channel, new Runnable() {
+                public void run() {
+                    if (cs.connected.get())
+                        ((BatchCallback) cs.callback).batchCallback(cs.channel, batch, timetoken);
+                }
+            });
+        }
+    }
+
+    /**
+     * Subscribe Callback
+     *
+     * @param ChannelStatus channel to deliver to.
+     * @param Object decrypted message.
+     * @param long timetoken of the message.
+     */
+    private static void _callback( ChannelStatus cs, Object message, long timetoken ) {
+        if (cs.callback instanceof TimetokenCallback) {
+            ((TimetokenCallback) cs.callback).subscribeCallback(cs.channel, message, timetoken);
+        } else {
+            cs.callback.subscribeCallback(cs.channel, message);
+        }
+    }
+
+    /**
+     * Decrypt Message
+     *
+     * Decrypt a message if a cipher key is set.
+     *
+     * @param Object message as received.
+     * @return Object message as JSONObject, JSONArray or String.
+     */
+    private Object _decrypt( Object message ) throws Exception {
+        if(message instanceof JSONObject) {
+            JSONObject obj = (JSONObject) message;
+            if(this.CIPHER_KEY.length() > 0){
+                // Decrypt Message
+                obj = this.crypto.decrypt(obj);
+            }
+            message = obj;
+        } else if(message instanceof JSONArray) {
+            JSONArray arr = (JSONArray) message;
+            if(this.CIPHER_KEY.length() > 0) {
+                arr = this.crypto.decryptJSONArray(arr);
+            }
+            message = arr;
+        } else {
+            String msgs = message.toString();
+            if(this.CIPHER_KEY.length() > 0) {
+                msgs = this.crypto.decrypt(msgs);
+            }
+            message = msgs;
+        }
+        return message;
+    }
+
+    /**
+     * Add Gap
+     *
+     * Extend the channel's last range if it ends where the new one starts,
+     * which is the case after a reconnect whose poll failed.
+     *
+     * @param ChannelStatus channel that missed messages.
+     * @param long last timetoken received, exclusive.
+     * @param long timetoken the new long-poll starts from, inclusive.
+     */
+    private static void _addGap( ChannelStatus cs, long from, long to ) {
+        if (!cs.gaps.isEmpty()) {
+            long[] last = cs.gaps.get(cs.gaps.size() - 1);
+            if (last[1] == from) {
+                last[1] = to;
+                return;
+            }
+        }
+        cs.gaps.add(new long[] { from, to });
+    }
+
+    /**
+     * Catch Up
+     *
+     * Load the messages of each channel's gap ranges from history,
+     * requesting every range in parallel, and deliver them in timetoken
+     * order without duplicates. A range is removed once it is loaded, or
+     * the channel reached the catch-up limit; on a failed page it keeps
+     * the part after the last page loaded.
+     *
+     * @param List<ChannelStatus> channels with gaps to replay.
+     */
+    private void _catchUp( List<ChannelStatus> channels ) throws Exception {
+        List<CatchUpMessage> gap = new ArrayList<CatchUpMessage>();
+        List<CatchUpPage> next = new ArrayList<CatchUpPage>();
+        Map<ChannelStatus, Integer> loaded = new HashMap<ChannelStatus, Integer>();
+        for (ChannelStatus cs : channels) {
+            loaded.put(cs, 0);
+            for (long[] range : cs.gaps) {
+                CatchUpPage p = new CatchUpPage();
+                p.status = cs;
+                p.gap    = range;
+                p.start  = range[0];
+                next.add(p);
+            }
+        }
+
+        // Load Pages of All Ranges Together
+        while (!next.isEmpty()) {
+            Map<CatchUpPage, Future<JSONArray>> pages =
+                new LinkedHashMap<CatchUpPage, Future<JSONArray>>();
+            for (CatchUpPage p : next) {
+                pages.put(p, _historyAsync(p.status.channel, p.start, p.gap[1], HISTORY_PAGE_SIZE));
+            }
+            next = new ArrayList<CatchUpPage>();
+
+            for (Map.Entry<CatchUpPage, Future<JSONArray>> e : pages.entrySet()) {
+                CatchUpPage p = e.getKey();
+                ChannelStatus cs = p.status;
+                JSONArray page;
+                try { page = e.getValue().get().optJSONArray(0); }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    page = null;
+                }
+                catch (Exception ex) { page = null; }
+
+                if (page == null) {
+                    // Retry the Rest Next Time
+                    cs.callback.errorCallback(cs.channel, "Failed Catching Up");
+                    p.gap[0] = p.start;
+                    continue;
+                }
+
+                int count = loaded.get(cs);
+                long last = 0;
+                for (int i = 0; i < page.length() && count < CATCH_UP_LIMIT; i++) {
+                    JSONObject entry = page.optJSONObject(i);
+                    if (entry == null || !entry.has("message"))
+                        continue;
+
+                    CatchUpMessage m = new CatchUpMessage();
+                    m.timetoken = entry.optLong("timetoken");
+                    m.status    = cs;
+                    m.message   = entry.get("message");
+                    last = Math.max(last, m.timetoken);
+
+                    // Outside Range?
+                    if (m.timetoken <= p.start || m.timetoken > p.gap[1])
+                        continue;
+                    gap.add(m);
+                    count++;
+                }
+                loaded.put(cs, count);
+
+                // Next Page?
+                if (page.length() >= HISTORY_PAGE_SIZE && count < CATCH_UP_LIMIT && last > p.start && last < p.gap[1]) {
+                    p.start = last;
+                    next.add(p);
+                } else {
+                    p.gap[0] = p.gap[1];
+                }
+            }
+        }
+
+        // Drop Replayed Ranges
+        for (ChannelStatus cs : channels) {
+            for (Iterator<long[]> it = cs.gaps.iterator(); it.hasNext();) {
+                long[] range = it.next();
+                if (range[0] >= range[1])
+                    it.remove();
+            }
+        }
+
+        // Merge in TimeToken Order
+        Collections.sort(gap, new Comparator<CatchUpMessage>() {
+            public int compare(CatchUpMessage a, CatchUpMessage b) {
+                return a.timetoken < b.timetoken ? -1 : (a.timetoken > b.timetoken ? 1 : 0);
+            }
+        });
+
+        Set<String> delivered = new HashSet<String>();
+        Map<ChannelStatus, JSONArray> batches =
+            new LinkedHashMap<ChannelStatus, JSONArray>();
+        long newest = 0;
+        for (CatchUpMessage m : gap) {
+            // Already Delivered?
+            if (!delivered.add(m.status.channel + '/' + m.timetoken))
+                continue;
+            if (!m.status.connected.get())
+                continue;
+
+            newest = m.timetoken;
+            if (!_collect(batches, m.status, m.message))
+                _deliver(m.status, m.message, m.timetoken);
+        }
+        _deliverBatches(batches, newest);
+    }
+
+    /**
+     * History Page
+     *
+     * Request up to one page of messages with their timetokens, oldest
+     * first, published after start and up to and including end.
+     *
+     * @param String channel name.
+     * @param long start timetoken, exclusive.
+     * @param long end timetoken, inclusive.
+     * @param int max messages.
+     * @return Future<JSONArray> of [[{message, timetoken}], start, end].
+     */
+    private Future<JSONArray> _historyAsync( String channel, long start, long end, int count ) {
+        return _historyAsync(channel, start, end, count, new ResponseHandler());
+    }
+
+    /**
+     * History Page
+     *
+     * @param String channel name.
+     * @param long start timetoken, exclusive.
+     * @param long end timetoken, inclusive.
+     * @param int max messages.
+     * @param ResponseHandler handler of the response.
+     * @return Future<JSONArray> of the handler's result.
+     */
+    private Future<JSONArray> _historyAsync(
+            String channel,
+            long start,
+            long end,
+            int count,
+            ResponseHandler handler
+            ) {
+        List<String> url = java.util.Arrays.asList(
+                "v2", "history", "sub-key", this.SUBSCRIBE_KEY, "channel", channel
+                );
+
+        Map<String, String> params = new HashMap<String, String>();
+        params.put("start", Long.toString(start));
+        params.put("end", Long.toString(end));
+        params.put("count", Integer.toString(count));
+        params.put("reverse", "true");
+        params.put("include_token", "true");
+
+        return _requestAsync(url, params, handler);
+    }
+
+    /**
+     * Reconnect Backoff Delay
+     *
+     * Full jitter: uniform between zero and the capped exponential delay.
+     *
+     * @param int failed attempts in a row, starting at 1.
+     * @return long milliseconds to wait.
+     */
+    private long _backoff( int attempt ) {
+        long delay = RECONNECT_MAX_DELAY;
+        if (attempt < 31)
+            delay = Math.min(delay, (long) RECONNECT_BASE_DELAY << Math.max(attempt - 1, 0));
+        return (long) (reconnect_jitter.nextDouble() * delay);
+    }
+
+    /**
+     * Pause Subscribe Loop
+     *
+     * Sleep unless the channel set changes in the meantime.
+     *
+     * @param long milliseconds to sleep.
+     * @param int subscribe version the loop is working on.
+     */
+    private void _pause( long ms, int version ) {
+        if (ms <= 0)
+            return;
+        subscribe_lock.lock();
+        try {
+            if (subscribe_version.get() != version)
+                return;
+            subscribe_wakeup.await(ms, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } finally {
+            subscribe_lock.unlock();
+        }
+    }
+
+    /**
+     * Await Demand
+     *
+     * Block while every channel of the next poll is a SubscribePublisher
+     * subscriber with a full buffer. Any other channel keeps polling.
+     *
+     * @param List<ChannelStatus> channels of the next poll.
+     * @param int subscribe version the loop is working on.
+     * @return boolean false if the channel set changed or the thread was
+     *  interrupted while waiting.
+     */
+    private boolean _awaitDemand( List<ChannelStatus> channels, int version ) {
+        subscribe_lock.lock();
+        try {
+            while (subscribe_version.get() == version) {
+                for (ChannelStatus cs : channels) {
+                    if (!(cs.callback instanceof SubscribePublisher.Demand)
+                            || ((SubscribePublisher.Demand) cs.callback).hasDemand())
+                        return true;
+                }
+
+                try { subscribe_wakeup.await(); }
+                catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        } finally {
+            subscribe_lock.unlock();
+        }
+        return false;
+    }
+
+    /**
+     * Wake Up
+     *
+     * Let a subscribe loop waiting for demand, a pause or its own stop
+     * check again.
+     */
+    void _wakeup() {
+        subscribe_lock.lock();
+        try {
+            subscribe_wakeup.signalAll();
+        } finally {
+            subscribe_lock.unlock();
+        }
+    }
+
+    /**
+     * Restart Subscribe
+     *
+     * Abort the in-flight long-poll so the loop polls again with the
+     * current channel set and timetoken.
+     */
+    private void _restartSubscribe() {
+        subscribe_version.incrementAndGet();
+        Future<JSONArray> f = subscribe_request;
+        if (f != null) {
+            f.cancel(true);
+        }
+        _wakeup();
+    }
+
+    /**
+     * Join Channels
+     *
+     * @param List<ChannelStatus> channels.
+     * @return String comma-separated channel names.
+     */
+    private static String _join( List<ChannelStatus> channels ) {
+        StringBuilder joined = new StringBuilder();
+        for (ChannelStatus cs : channels) {
+            if (joined.length() > 0)
+                joined.append(',');
+            joined.append(cs.channel);
+        }
+        return joined.toString();
+    }
+
+    /**
+     * History
+     *
+     * Load history from a channel.
+     *
+     * @param String channel name.
+     * @param int limit history count response.
+     * @return JSONArray of history.
+     */
+    public JSONArray history( String channel, int limit ) {
+        HashMap<String, Object> args = new HashMap<String, Object>(2);
+        args.put("channel", channel);
+        args.put("limit", limit);
+        return history( args );
+    }
+
+    /**
+     * History
+     *
+     * Load history from a channel.
+     *
+     * @param HashMap<String, Object> containing channel name, limit history count response.
+     * @return JSONArray of history.
+     */
+    public JSONArray history( HashMap<String, Object> args ) {
+
+        String channel = (String) args.get("channel");
+        int limit = Integer.parseInt(args.get("limit").toString());
+
+        List<String> url = new ArrayList<String>();
+
+        url.add("history");
+        url.add(this.SUBSCRIBE_KEY);
+        url.add(channel);
+        url.add("0");
+        url.add(Integer.toString(limit));
+
+        JSONArray response = _request(url);
+        
+        if (this.CIPHER_KEY.length() > 0) {
+            // Decrpyt Messages
+            return this.crypto.decryptJSONArray(response);
+        } else {
+            return response;
+        }
+    }
+
+    /**
+     * History
+     *
+     * Load the messages of a channel published after one timetoken up to
+     * and including another, oldest first, each with its timetoken.
+     *
+     * @param String channel name.
+     * @param long start timetoken, exclusive.
+     * @param long end timetoken, inclusive.
+     * @param int max messages, at most 100.
+     * @return JSONArray of {"message", "timetoken"} objects.
+     */
+    public JSONArray history( String channel, long start, long end, int count ) {
+        JSONArray response;
+        try {
+            response = _historyAsync(channel, start, end, count).get();
+        } catch (Exception e) {
+            response = new JSONArray();
+        }
+
+        JSONArray messages = response.optJSONArray(0);
+        JSONArray history = new JSONArray();
+        if (messages == null)
+            return history;
+
+        for (int i = 0; i < messages.length(); i++) {
+            JSONObject entry = messages.optJSONObject(i);
+            if (entry == null || !entry.has("message"))
+                continue;
+            try {
+                JSONObject decrypted = new JSONObject();
+                decrypted.put("message", _decrypt(entry.get("message")));
+                decrypted.put("timetoken", entry.optLong("timetoken"));
+                history.put(decrypted);
+            } catch (Exception e) {}
+        }
+        return history;
+    }
+
+    /**
+     * Export History
+     *
+     * Stream the messages of a channel published after one timetoken up to
+     * and including another to a callback, oldest first. History is loaded
+     * a page at a time, so memory is bounded by one page however long the
+     * range is: the raw body of the page is buffered and a JSONReader then
+     * decodes it one message at a time rather than into a JSONArray. The
+     * callback runs on the calling thread.
+     *
+     * @param String channel name.
+     * @param long start timetoken, exclusive.
+     * @param long end timetoken, inclusive.
+     * @param HistoryCallback receiving each message, return false to stop.
+     * @return long number of messages delivered.
+     */
+    public long exportHistory( String channel, long start, long end, HistoryCallback callback ) {
+        long exported = 0;
+        long from = start;
+
+        while (from < end) {
+            BodyHandler page = new BodyHandler();
+            int entries = 0;
+            long last = from;
+            try {
+                _historyAsync(channel, from, end, HISTORY_PAGE_SIZE, page).get();
+
+                // Read [[{message, timetoken}, ...], start, end] One Entry at a Time
+                JSONReader reader = new JSONReader(new JSONByteTokener(page.body));
+                if (reader.next() != JSONReader.START_ARRAY || reader.next() != JSONReader.START_ARRAY)
+                    throw new JSONException("Expected a page of messages");
+                while (reader.hasNext()) {
+                    Object value = reader.nextValue();
+                    entries++;
+                    if (!(value instanceof JSONObject) || !((JSONObject) value).has("message"))
+                        continue;
+
+                    JSONObject entry = (JSONObject) value;
+                    long timetoken = entry.optLong("timetoken");
+                    last = Math.max(last, timetoken);
+                    exported++;
+                    if (!callback.historyCallback(channel, _decrypt(entry.get("message")), timetoken))
+                        return exported;
+                }
+            } catch (Exception e) {
+                callback.errorCallback(channel, "Failed Exporting History");
+                return exported;
+            }
+
+            // Next Page?
+            if (entries < HISTORY_PAGE_SIZE || last <= from)
+                break;
+            from = last;
+        }
+        return exported;
+    }
+
+    /**
+     * Time
+     *
+     * Timestamp from PubNub Cloud.
+     *
+     * @return long timetoken, 0 if the request failed.
+     */
+    public long time() {
+        List<String> url = new ArrayList<String>();
+
+        url.add("time");
+        url.add("0");
+
+        JSONArray response = _request(url);
+        
+        return response.optLong(0);
+    }
+
+    /**
+     * UUID
+     *
+     * 32 digit UUID generation at client side.
+     *
+     * @return String uuid.
+     */
+    public static String uuid() {
+        UUID uuid = UUID.randomUUID();
+        return uuid.toString();
+    }
+
+    /**
+     * Unsubscribe
+     *
+     * Unsubscribe/Disconnect to channel.
+     *
+     * @param HashMap<String, Object> containing channel name.
+     */
+    public void unsubscribe( HashMap<String, Object> args ) {
+        String channel = (String) args.get("channel");
+        _unsubscribe(channel);
+    }
+
+    /**
+     * Unsubscribe - Private Interface
+     *
+     * Abort the in-flight long-poll right away so its socket is freed,
+     * then notify the channel's callback.
+     *
+     * @param String channel name.
+     */
+    private void _unsubscribe( String channel ) {
+        _unsubscribe(channel, null);
+    }
+
+    /**
+     * Unsubscribe - Package Interface
+     *
+     * @param String channel name.
+     * @param Callback only unsubscribe if the channel has this callback, null for any.
+     */
+    void _unsubscribe( String channel, Callback callback ) {
+        ChannelStatus cs = subscriptions.get(channel);
+        if (cs != null && (callback == null || cs.callback == callback)
+                && cs.connected.compareAndSet(true, false)) {
+            subscriptions.remove(channel, cs);
+            _restartSubscribe();
+            cs.callback.disconnectCallback(channel);
+        }
+    }
+
+    /**
+     * Request URL
+     *
+     * @param List<String> request of url directories.
+     * @return JSONArray from JSON response.
+     */
+    private JSONArray _request(List<String> url_components) {
+        String request_for = url_components.get(0);
+
+        try {
+            return _requestAsync(url_components, new ResponseHandler()).get();
+        } catch (Exception e) {
+
+        	// Response If Failed JSONP HTTP Request. 
+            JSONArray jsono = new JSONArray();
+            try {
+            	if(request_for != null) {
+            		if(request_for.equals("time")) {
+            			jsono.put("0");
+            		} else if(request_for.equals("history")) {
+            			jsono.put("Error: Failed JSONP HTTP Request.");
+            		} else if(request_for.equals("publish")) {
+            			jsono.put("0");
+            			jsono.put("Error: Failed JSONP HTTP Request.");
+            		} else if(request_for.equals("subscribe")) {
+            			jsono.put("0");
+            			jsono.put("0");
+            		} 
+            	}
+            }
+            catch (Exception jsone) {}
+
+            return jsono;
+        }
+    }
+
+    /**
+     * Request URL Asynchronously
+     *
+     * @param List<String> request of url directories.
+     * @param ResponseHandler handler parsing the response.
+     * @return Future<JSONArray> from JSON response.
+     */
+    private Future<JSONArray> _requestAsync(
+            List<String> url_components,
+            ResponseHandler handler
+            ) {
+        return _requestAsync(url_components, null, handler);
+    }
+
+    /**
+     * Request URL Asynchronously
+     *
+     * @param List<String> request of url directories.
+     * @param Map<String, String> query parameters, may be null.
+     * @param ResponseHandler handler parsing the response.
+     * @return Future<JSONArray> from JSON response.
+     */
+    private Future<JSONArray> _requestAsync(
+            List<String> url_components,
+            Map<String, String> params,
+            ResponseHandler handler
+            ) {
+        StringBuilder url = new StringBuilder();
+        url.append(this.ORIGIN);
+
+        // Generate URL with UTF-8 Encoding
+        for (String url_bit : url_components) {
+            url.append('/');
+            _encodeURIcomponent(url_bit, url);
+        }
+
+        // Append Query String
+        if (params != null) {
+            char separator = '?';
+            for (Map.Entry<String, String> param : params.entrySet()) {
+                url.append(separator);
+                _encodeURIcomponent(param.getKey(), url);
+                url.append('=');
+                _encodeURIcomponent(param.getValue(), url);
+                separator = '&';
+            }
+        }
+
+        Map<String, String> headers = new LinkedHashMap<String, String>();
+        headers.put("V", "3.1");
+        headers.put("User-Agent", "Java");
+
+        try {
+            // Execute Request
+            return _transport().get(url.toString(), headers, handler);
+        } catch (final Exception e) {
+            handler.onThrowable(e);
+
+            // Already Failed Future
+            FutureTask<JSONArray> f = new FutureTask<JSONArray>(new Callable<JSONArray>() {
+                public JSONArray call() throws Exception { throw e; }
+            });
+            f.run();
+            return f;
+        }
+    }
+
+    /**
+     * Response Handler
+     *
+     * Parses a decoded response body as UTF-8 JSON bytes; strings are only
+     * decoded as they are put into the result.
+     */
+    private class ResponseHandler implements Transport.Handler {
+
+        public void onThrowable(Throwable t) {}
+
+        public JSONArray onResponse(InputStream resulting_is) throws Exception {
+
+            // Parse JSON Bytes
+            try { return new JSONArray(new JSONByteTokener(_readBody(resulting_is))); }
+            catch (Exception e) {
+                JSONArray jsono = new JSONArray();
+
+                try { jsono.put("Error: Failed JSON Parsing."); }
+                catch (Exception jsone) {}
+
+                // Return Failure to Parse
+                return jsono;
+            }
+            finally {
+                resulting_is.close();
+            }
+        }
+    }
+
+    /**
+     * Body Handler
+     *
+     * Keeps the response body as bytes for the requesting thread to read.
+     */
+    private class BodyHandler extends ResponseHandler {
+        private volatile ByteBuffer body;
+
+        public JSONArray onResponse(InputStream resulting_is) throws Exception {
+            try { this.body = _readBody(resulting_is); }
+            finally { resulting_is.close(); }
+            return null;
+        }
+    }
+
+    /**
+     * Read Body
+     *
+     * Read a response body into one buffer, sized from available() when
+     * the stream knows its length.
+     *
+     * @param InputStream decoded response body.
+     * @return ByteBuffer over the bytes read.
+     */
+    private static ByteBuffer _readBody( InputStream is ) throws IOException {
+        byte[] body = new byte[Math.max(is.available() + 1, 512)];
+        int length = 0;
+        int n;
+        while ((n = is.read(body, length, body.length - length)) > 0) {
+            length += n;
+            if (length == body.length) {
+                byte[] grown = new byte[body.length * 2];
+                System.arraycopy(body, 0, grown, 0, length);
+                body = grown;
+            }
+        }
+        return ByteBuffer.wrap(body, 0, length);
+    }
+
+    /**
+     * Transport
+     *
+     * @return Transport set for this instance, or the default NingTransport
+     * created on first use.
+     */
+    private synchronized Transport _transport() {
+        if (this.transport != null)
+            return this.transport;
+        if (this.default_transport == null) {
+            this.default_transport = new NingTransport(
+                MAX_CONNECTIONS_PER_HOST, IDLE_CONNECTION_TIMEOUT, REQUEST_TIMEOUT );
+        }
+        return this.default_transport;
+    }
+
+    /**
+     * Encode URI Component
+     *
+     * Percent-encode the UTF-8 bytes of everything except ASCII letters,
+     * digits, '-' and '_'.
+     *
+     * @param String url component.
+     * @return String encoded component.
+     */
+    static String _encodeURIcomponent(String s) {
+        StringBuilder o = new StringBuilder(s.length() + 16);
+        _encodeURIcomponent(s, o);
+        return o.toString();
+    }
+
+    /**
+     * Encode URI Component
+     *
+     * @param String url component.
+     * @param StringBuilder url to append the encoded component to.
+     */
+    static void _encodeURIcomponent(String s, StringBuilder o) {
+        int length = s.length();
+        int safe_from = 0;
+
+        for (int i = 0; i < length; i++) {
+            char ch = s.charAt(i);
+            if (ch < 0x80 && URI_SAFE[ch])
+                continue;
+
+            // Copy Safe Run
+            if (safe_from < i)
+                o.append(s, safe_from, i);
+            safe_from = i + 1;
+
+            if (ch < 0x80) {
+                _percent(o, ch);
+            } else if (ch < 0x800) {
+                _percent(o, 0xC0 | (ch >> 6));
+                _percent(o, 0x80 | (ch & 0x3F));
+            } else if (Character.isHighSurrogate(ch) && i + 1 < length
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(ch, s.charAt(++i));
+                safe_from = i + 1;
+                _percent(o, 0xF0 | (cp >> 18));
+                _percent(o, 0x80 | ((cp >> 12) & 0x3F));
+                _percent(o, 0x80 | ((cp >> 6) & 0x3F));
+                _percent(o, 0x80 | (cp & 0x3F));
+            } else {
+                // Lone Surrogates Become U+FFFD
+                if (ch >= '\uD800' && ch <= '\uDFFF')
+                    ch = '\uFFFD';
+                _percent(o, 0xE0 | (ch >> 12));
+                _percent(o, 0x80 | ((ch >> 6) & 0x3F));
+                _percent(o, 0x80 | (ch & 0x3F));
+            }
+        }
+
+        if (safe_from < length)
+            o.append(s, safe_from, length);
+    }
+
+    private static void _percent(StringBuilder o, int b) {
+        o.append('%');
+        o.append(HEX[b >> 4]);
+        o.append(HEX[b & 0xF]);
+    }
+
+
+}
@@ -0,0 +1,339 @@
+package pubnub;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * PubNub 3.1 Subscribe Dispatcher
+ *
+ * Runs subscribe callbacks off the polling thread so a slow consumer does
+ * not hold up the next long-poll. Channels are hashed onto a fixed set of
+ * stripes, each with its own bounded queue and worker thread, so messages
+ * of one channel are delivered in order while different channels run in
+ * parallel.
+ *
+ * When a stripe's queue is full the OverflowPolicy decides what happens:
+ * BLOCK stalls the subscribe loop until there is room, and DROP_NEWEST and
+ * DROP_OLDEST discard a message. CONFLATE keeps only the latest state of
+ * a channel, full or not: a message replaces the channel's message still
+ * waiting in the queue, at its place, and is only queued if there is none
+ * behind the channel's last batch. When the queue is full it is dropped
+ * instead; messages of other channels are never pushed out. Tasks queued
+ * with dispatchBatch, such as a BatchCallback's batch, are never discarded
+ * or replaced: they only push out single messages under DROP_OLDEST and
+ * are queued past the capacity otherwise.
+ *
+ * A task that throws is reported to the worker thread's uncaught
+ * exception handler and the worker goes on with the next task.
+ *
+ * @package pubnub
+ */
+public class SubscribeDispatcher {
+    public enum OverflowPolicy { BLOCK, DROP_NEWEST, DROP_OLDEST, CONFLATE }
+
+    private final OverflowPolicy POLICY;
+    private final int QUEUE_CAPACITY;
+    private final Stripe[] stripes;
+
+    private final AtomicInteger queue_depth = new AtomicInteger();
+    private final AtomicInteger max_queue_depth = new AtomicInteger();
+    private final AtomicLong dispatched_count = new AtomicLong();
+    private final AtomicLong dropped_count = new AtomicLong();
+    private final AtomicLong conflated_count = new AtomicLong();
+    private final AtomicLong failed_count = new AtomicLong();
+
+    private class Task {
+        String channel;
+        Runnable runnable;
+        boolean keep;
+    }
+
+    private class Stripe implements Runnable {
+        final LinkedList<Task> queue = new LinkedList<Task>();
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition not_empty = lock.newCondition();
+        final Condition not_full = lock.newCondition();
+        // Newest Queued Task of Each Channel, Kept Under CONFLATE
+        final Map<String, Task> latest = new HashMap<String, Task>();
+        boolean running = true;
+
+        public void run() {
+            while (true) {
+                Task task;
+                lock.lock();
+                try {
+                    while (queue.isEmpty() && running) {
+                        try { not_empty.await(); }
+                        catch (InterruptedException e) { return; }
+                    }
+                    if (queue.isEmpty())
+                        return;
+                    task = queue.removeFirst();
+                    if (latest.get(task.channel) == task)
+                        latest.remove(task.channel);
+                    queue_depth.decrementAndGet();
+                    not_full.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+
+                try { task.runnable.run(); }
+                catch (Throwable e) {
+                    // Report and Keep Worker Alive
+                    failed_count.incrementAndGet();
+                    Thread t = Thread.currentThread();
+                    try { t.getUncaughtExceptionHandler().uncaughtException(t, e); }
+                    catch (Throwable ignored) {}
+                }
+                dispatched_count.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Subscribe Dispatcher
+     *
+     * @param int worker threads, one per stripe.
+     * @param int max queued messages per stripe.
+     * @param OverflowPolicy what to do when a stripe's queue is full.
+     */
+    public SubscribeDispatcher( int threads, int queue_capacity, OverflowPolicy policy ) {
+        this( threads, queue_capacity, policy, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "pubnub-dispatcher-" + count.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Subscribe Dispatcher
+     *
+     * @param int worker threads, one per stripe.
+     * @param int max queued messages per stripe.
+     * @param OverflowPolicy what to do when a stripe's queue is full.
+     * @param ThreadFactory factory for the worker threads.
+     */
+    public SubscribeDispatcher(
+            int threads,
+            int queue_capacity,
+            OverflowPolicy policy,
+            ThreadFactory thread_factory
+            ) {
+        this.POLICY         = policy;
+        this.QUEUE_CAPACITY = queue_capacity;
+        this.stripes        = new Stripe[threads];
+
+        for (int i = 0; i < threads; i++) {
+            stripes[i] = new Stripe();
+            thread_factory.newThread(stripes[i]).start();
+        }
+    }
+
+    /**
+     * Subscribe Dispatcher
+     *
+     * One stripe per available processor.
+     *
+     * @param int max queued messages per stripe.
+     * @param OverflowPolicy what to do when a stripe's queue is full.
+     */
+    public SubscribeDispatcher( int queue_capacity, OverflowPolicy policy ) {
+        this( Runtime.getRuntime().availableProcessors(), queue_capacity, policy );
+    }
+
+    /**
+     * Dispatch
+     *
+     * Queue a task on the stripe of its channel.
+     *
+     * @param String channel the task belongs to.
+     * @param Runnable task to run.
+     * @return boolean false if the task was dropped.
+     */
+    public boolean dispatch( String channel, Runnable runnable ) {
+        return _dispatch(channel, runnable, false);
+    }
+
+    /**
+     * Dispatch Batch
+     *
+     * Queue a task on the stripe of its channel that the overflow policy
+     * must not drop or conflate, such as a batch of messages.
+     *
+     * @param String channel the task belongs to.
+     * @param Runnable task to run.
+     * @return boolean false if the dispatcher is shut down.
+     */
+    public boolean dispatchBatch( String channel, Runnable runnable ) {
+        return _dispatch(channel, runnable, true);
+    }
+
+    /**
+     * Dispatch - Private Interface
+     *
+     * @param String channel the task belongs to.
+     * @param Runnable task to run.
+     * @param boolean true if the task must not be dropped or conflated.
+     * @return boolean false if the task was dropped.
+     */
+    private boolean _dispatch( String channel, Runnable runnable, boolean keep ) {
+        Task task = new Task();
+        task.channel  = channel;
+        task.runnable = runnable;
+        task.keep     = keep;
+
+        Stripe stripe = stripes[(channel.hashCode() & 0x7fffffff) % stripes.length];
+        stripe.lock.lock();
+        try {
+            if (!stripe.running)
+                return false;
+
+            // Replace the Channel's Waiting Message
+            if (POLICY == OverflowPolicy.CONFLATE && !keep) {
+                Task queued = stripe.latest.get(channel);
+                if (queued != null && !queued.keep) {
+                    queued.runnable = runnable;
+                    conflated_count.incrementAndGet();
+                    return true;
+                }
+            }
+
+            if (stripe.queue.size() >= QUEUE_CAPACITY) {
+                switch (POLICY) {
+                case BLOCK:
+                    // Backpressure
+                    while (stripe.queue.size() >= QUEUE_CAPACITY && stripe.running) {
+                        try { stripe.not_full.await(); }
+                        catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            dropped_count.incrementAndGet();
+                            return false;
+                        }
+                    }
+                    if (!stripe.running)
+                        return false;
+                    break;
+                case DROP_NEWEST:
+                case CONFLATE:
+                    if (keep)
+                        break;
+                    dropped_count.incrementAndGet();
+                    return false;
+                case DROP_OLDEST:
+                    if (_remove(stripe)) {
+                        queue_depth.decrementAndGet();
+                        dropped_count.incrementAndGet();
+                    } else if (!keep) {
+                        dropped_count.incrementAndGet();
+                        return false;
+                    }
+                    break;
+                }
+            }
+
+            stripe.queue.addLast(task);
+            if (POLICY == OverflowPolicy.CONFLATE)
+                stripe.latest.put(channel, task);
+            queue_depth.incrementAndGet();
+            stripe.not_empty.signal();
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        int depth = queue_depth.get();
+        int max;
+        while (depth > (max = max_queue_depth.get()) && !max_queue_depth.compareAndSet(max, depth)) {}
+        return true;
+    }
+
+    /**
+     * Shutdown
+     *
+     * Run the queued tasks and stop the worker threads.
+     */
+    public void shutdown() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.running = false;
+                stripe.not_empty.signalAll();
+                stripe.not_full.signalAll();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return int tasks waiting in all stripes.
+     */
+    public int getQueueDepth() {
+        return queue_depth.get();
+    }
+
+    /**
+     * @return int largest number of tasks waiting at once.
+     */
+    public int getMaxQueueDepth() {
+        return max_queue_depth.get();
+    }
+
+    /**
+     * @return long tasks run.
+     */
+    public long getDispatchedCount() {
+        return dispatched_count.get();
+    }
+
+    /**
+     * @return long tasks dropped because a queue was full.
+     */
+    public long getDroppedCount() {
+        return dropped_count.get();
+    }
+
+    /**
+     * @return long tasks replaced by a newer task of their channel while
+     * waiting.
+     */
+    public long getConflatedCount() {
+        return conflated_count.get();
+    }
+
+    /**
+     * @return long tasks that threw.
+     */
+    public long getFailedCount() {
+        return failed_count.get();
+    }
+
+    /**
+     * Remove Oldest
+     *
+     * Remove the oldest queued task that may be dropped.
+     *
+     * @param Stripe stripe to remove from, locked by the caller.
+     * @return boolean true if a task was removed.
+     */
+    private static boolean _remove( Stripe stripe ) {
+        Iterator<Task> it = stripe.queue.iterator();
+        while (it.hasNext()) {
+            Task task = it.next();
+            if (!task.keep) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,247 @@
+package pubnub;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * PubNub 3.1 Subscribe Publisher
+ *
+ * Reactive Streams view of one channel. The channel is subscribed with
+ * subscribeAsync() on the first request(n). Messages arriving faster than
+ * the subscriber requests them wait in a buffer of its own, so a slow
+ * subscriber does not hold up the long-poll other channels of the Pubnub
+ * instance share. When the buffer is full the OverflowPolicy decides what
+ * happens: DROP_NEWEST and DROP_OLDEST discard a message, ERROR fails the
+ * subscriber with an IllegalStateException. The long-poll only waits when
+ * every channel it polls is a publisher with a full buffer.
+ *
+ * Only one subscriber is allowed at a time. Cancelling unsubscribes the
+ * channel. Use FlowAdapters.toFlowPublisher() for java.util.concurrent.Flow.
+ *
+ * @package pubnub
+ */
+public class SubscribePublisher implements Publisher<Object> {
+    public enum OverflowPolicy { DROP_NEWEST, DROP_OLDEST, ERROR }
+
+    private final Pubnub pubnub;
+    private final String channel;
+    private final int BUFFER_SIZE;
+    private final OverflowPolicy POLICY;
+    private final AtomicBoolean subscribed = new AtomicBoolean(false);
+    private final AtomicLong dropped_count = new AtomicLong();
+
+    /**
+     * Demand of a subscribe callback, checked by the subscribe loop
+     * before each long-poll.
+     */
+    interface Demand {
+        boolean hasDemand();
+    }
+
+    /**
+     * Refusal of a subscribe callback's channel by the subscribe call,
+     * signalled before errorCallback.
+     */
+    interface Refusal {
+        void subscribeRefused( String reason );
+    }
+
+    /**
+     * Subscribe Publisher
+     *
+     * Fail the subscriber when its buffer overflows.
+     *
+     * @param Pubnub instance to subscribe with.
+     * @param String channel name.
+     * @param int max buffered messages.
+     */
+    public SubscribePublisher( Pubnub pubnub, String channel, int buffer_size ) {
+        this( pubnub, channel, buffer_size, OverflowPolicy.ERROR );
+    }
+
+    /**
+     * Subscribe Publisher
+     *
+     * @param Pubnub instance to subscribe with.
+     * @param String channel name.
+     * @param int max buffered messages.
+     * @param OverflowPolicy what to do when the buffer is full.
+     */
+    public SubscribePublisher( Pubnub pubnub, String channel, int buffer_size, OverflowPolicy policy ) {
+        this.pubnub      = pubnub;
+        this.channel     = channel;
+        this.BUFFER_SIZE = buffer_size;
+        this.POLICY      = policy;
+    }
+
+    /**
+     * @return long messages discarded because the buffer was full.
+     */
+    public long getDroppedCount() {
+        return dropped_count.get();
+    }
+
+    public void subscribe( Subscriber<? super Object> subscriber ) {
+        if (subscriber == null)
+            throw new NullPointerException("Subscriber is null.");
+
+        ChannelSubscription s = new ChannelSubscription(subscriber);
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(s);
+            s.cancelled.set(true);
+            subscriber.onError(new IllegalStateException("Already Subscribed"));
+            return;
+        }
+        subscriber.onSubscribe(s);
+    }
+
+    private class ChannelSubscription implements Subscription, Callback, Demand, Refusal {
+        final Subscriber<? super Object> subscriber;
+        final Queue<Object> buffer = new ConcurrentLinkedQueue<Object>();
+        final AtomicInteger buffered = new AtomicInteger();
+        final AtomicLong requested = new AtomicLong();
+        final AtomicInteger wip = new AtomicInteger();
+        final AtomicBoolean started = new AtomicBoolean(false);
+        final AtomicBoolean cancelled = new AtomicBoolean(false);
+        volatile Throwable error;
+
+        ChannelSubscription( Subscriber<? super Object> subscriber ) {
+            this.subscriber = subscriber;
+        }
+
+        public void request( long n ) {
+            if (n <= 0) {
+                _fail(new IllegalArgumentException("Request must be positive."));
+                return;
+            }
+
+            long r;
+            do {
+                r = requested.get();
+            } while (!requested.compareAndSet(r, r + n < 0 ? Long.MAX_VALUE : r + n));
+
+            // Subscribe on First Demand
+            if (started.compareAndSet(false, true) && !cancelled.get())
+                pubnub.subscribeAsync(channel, this);
+
+            _drain();
+            pubnub._wakeup();
+        }
+
+        public void cancel() {
+            if (cancelled.compareAndSet(false, true))
+                _stop();
+        }
+
+        public boolean hasDemand() {
+            return buffered.get() < BUFFER_SIZE;
+        }
+
+        public boolean subscribeCallback( String channel, Object message ) {
+            if (cancelled.get())
+                return false;
+
+            // Buffer Full?
+            if (buffered.get() >= BUFFER_SIZE) {
+                switch (POLICY) {
+                case DROP_NEWEST:
+                    dropped_count.incrementAndGet();
+                    _drain();
+                    return true;
+                case DROP_OLDEST:
+                    if (buffer.poll() != null) {
+                        buffered.decrementAndGet();
+                        dropped_count.incrementAndGet();
+                    }
+                    break;
+                case ERROR:
+                    _fail(new IllegalStateException("Buffer Overflow"));
+                    return false;
+                }
+            }
+
+            buffer.offer(message);
+            buffered.incrementAndGet();
+            _drain();
+            return true;
+        }
+
+        public void subscribeRefused( String reason ) {
+            _fail(new IllegalStateException(reason));
+        }
+
+        public void errorCallback( String channel, Object message ) {}
+
+        public void connectCallback( String channel ) {
+            // Cancelled While Subscribing?
+            if (cancelled.get())
+                _stop();
+        }
+
+        public void reconnectCallback( String channel ) {}
+
+        public void disconnectCallback( String channel ) {}
+
+        /**
+         * Drain
+         *
+         * Emit buffered messages while there is demand. Only one thread
+         * emits at a time.
+         */
+        private void _drain() {
+            if (wip.getAndIncrement() != 0)
+                return;
+
+            int missed = 1;
+            do {
+                while (!cancelled.get() && requested.get() > 0) {
+                    Object message = buffer.poll();
+                    if (message == null)
+                        break;
+                    buffered.decrementAndGet();
+                    requested.decrementAndGet();
+                    subscriber.onNext(message);
+                }
+
+                if (error != null && cancelled.compareAndSet(false, true)) {
+                    buffer.clear();
+                    subscriber.onError(error);
+                }
+
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Fail
+         *
+         * @param Throwable error to signal, then stop.
+         */
+        private void _fail( Throwable t ) {
+            if (cancelled.get())
+                return;
+            error = t;
+            _stop();
+            _drain();
+        }
+
+        /**
+         * Stop
+         *
+         * Unsubscribe the channel if this subscription subscribed it.
+         */
+        private void _stop() {
+            if (started.get())
+                pubnub._unsubscribe(channel, this);
+            subscribed.set(false);
+            pubnub._wakeup();
+        }
+    }
+}
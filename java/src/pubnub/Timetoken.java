@@ -0,0 +1,74 @@
+package pubnub;
+
+import java.util.Date;
+
+/**
+ * PubNub 3.1 TimeToken
+ *
+ * PubNub timetokens count 100 nanosecond steps since the Unix epoch in 17
+ * digits, which a double cannot hold exactly. They are passed around as a
+ * primitive long; this class converts them from their JSON form and to
+ * wall-clock time.
+ *
+ * @package pubnub
+ */
+public final class Timetoken {
+    private static final long TICKS_PER_MILLISECOND = 10000L;
+
+    private Timetoken() {}
+
+    /**
+     * Parse
+     *
+     * @param String timetoken digits.
+     * @return long timetoken, 0 if not a timetoken.
+     */
+    public static long parse( String timetoken ) {
+        if (timetoken == null)
+            return 0;
+        try { return Long.parseLong(timetoken); }
+        catch (NumberFormatException e) { return 0; }
+    }
+
+    /**
+     * To Milliseconds
+     *
+     * @param long timetoken.
+     * @return long milliseconds since the Unix epoch.
+     */
+    public static long toMillis( long timetoken ) {
+        return timetoken / TICKS_PER_MILLISECOND;
+    }
+
+    /**
+     * From Milliseconds
+     *
+     * @param long milliseconds since the Unix epoch.
+     * @return long timetoken.
+     */
+    public static long fromMillis( long millis ) {
+        return millis * TICKS_PER_MILLISECOND;
+    }
+
+    /**
+     * To Date
+     *
+     * @param long timetoken.
+     * @return Date wall-clock time of the timetoken.
+     */
+    public static Date toDate( long timetoken ) {
+        return new Date(toMillis(timetoken));
+    }
+
+    /**
+     * Latency
+     *
+     * Time between a timetoken and now on the local clock.
+     *
+     * @param long timetoken.
+     * @return long milliseconds elapsed.
+     */
+    public static long latency( long timetoken ) {
+        return System.currentTimeMillis() - toMillis(timetoken);
+    }
+}
@@ -0,0 +1,12 @@
+package pubnub;
+
+/**
+ * Callback that also receives the timetoken of each message.
+ *
+ * Messages from a subscribe response carry the timetoken of the whole
+ * response; messages replayed from history carry their own.
+ */
+public interface TimetokenCallback extends Callback {
+
+	public abstract boolean subscribeCallback(String channel, Object message, long timetoken);
+}
@@ -1,256 +1,447 @@
-package pubnub.crypto;
-
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.UnsupportedEncodingException;
-import java.math.BigInteger;
-import java.security.Key;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Iterator;
-
-import javax.crypto.Cipher;
-import javax.crypto.CipherInputStream;
-import javax.crypto.CipherOutputStream;
-import javax.crypto.Mac;
-import javax.crypto.spec.IvParameterSpec;
-import javax.crypto.spec.SecretKeySpec;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
-
-/**
- * PubNub 3.1 Cryptography
- * 
- */
-
-public class PubnubCrypto {
-
-	private final String CIPHER_KEY;  
-	  
-    public PubnubCrypto(String CIPHER_KEY) {
-        this.CIPHER_KEY = CIPHER_KEY;  
-    }  
-  
-    /**
-     * Encrypt
-     * 
-     * @param JSONObject Message to encrypt
-     * @return JSONObject as Encrypted message
-     */
-    @SuppressWarnings("unchecked")
-	public JSONObject encrypt(JSONObject message) {
-    	try {
-    		JSONObject message_encrypted = new JSONObject();
-        	Iterator<String> it = message.keys();
-        	
-	    	while(it.hasNext()) {
-	    		String key = it.next();
-	    		String val = message.getString(key);
-	    		message_encrypted.put(key, encrypt(val));
-	    	}
-	    	return message_encrypted;
-
-    	} catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-    
-    /**
-     * Decrypt
-     * 
-     * @param JSONObject Encrypted message
-     * @return JSONObject Message decrypted
-     */
-    @SuppressWarnings("unchecked")
-	public JSONObject decrypt(JSONObject message_encrypted) {
-    	try {
-    		JSONObject message_decrypted = new JSONObject();
-        	Iterator<String> it = message_encrypted.keys();
-        	
-	    	while(it.hasNext()) {
-	    		String key = it.next();
-	    		String encrypted_str = message_encrypted.getString(key);
-	    		String decrypted_str = decrypt(encrypted_str);
-	    		message_decrypted.put(key, decrypted_str);
-	    	}
-	    	return message_decrypted;
-    	} catch(Exception e) {
-    		throw new RuntimeException(e);
-    	}
-    }
-    
-    /**
-     * Encrypt JSONArray
-     * 
-     * @param JSONArray - Encrypted JSONArray
-     * @return JSONArray - Decrypted JSONArray
-     */
-    public JSONArray encryptJSONArray(JSONArray jsona_arry) {
-    	try {
-    		JSONArray jsona_decrypted = new JSONArray();
-    		
-    		for (int i = 0; i < jsona_arry.length(); i++) {
-				 Object o = jsona_arry.get(i);
-				 if(o != null) {
-					 if(o instanceof JSONObject) {
-						 jsona_decrypted.put(i, encrypt((JSONObject)o));
-					 } else if(o instanceof JSONArray) {
-						 jsona_decrypted.put(i, encryptJSONArray((JSONArray)o));
-					 } else if(o instanceof String) {
-						 jsona_decrypted.put(i, encrypt(o.toString()));
-					 }
-				 }
-			}
-    		
-    		return jsona_decrypted;
-    		
-    	} catch(Exception e) {
-    		throw new RuntimeException(e);
-    	}
-    }
-    
-    /**
-     * Decrypt JSONArray
-     * 
-     * @param JSONArray - Encrypted JSONArray
-     * @return JSONArray - Decrypted JSONArray
-     */
-    public JSONArray decryptJSONArray(JSONArray jsona_encrypted) {
-    	try {
-    		JSONArray jsona_decrypted = new JSONArray();
-    		
-    		for (int i = 0; i < jsona_encrypted.length(); i++) {
-				 Object o = jsona_encrypted.get(i);
-				 if(o != null) {
-					 if(o instanceof JSONObject) {
-						 jsona_decrypted.put(i, decrypt((JSONObject)o));
-					 } else if(o instanceof JSONArray) {
-						 jsona_decrypted.put(i, decryptJSONArray((JSONArray)o));
-					 } else if(o instanceof String) {
-						 jsona_decrypted.put(i, decrypt(o.toString()));
-					 }
-				 }
-			}
-    		
-    		return jsona_decrypted;
-    		
-    	} catch(Exception e) {
-    		throw new RuntimeException(e);
-    	}
-    }
-    
-    /**
-     * Encrypt
-     * 
-     * @param String plain text to encrypt
-     * @return String cipher text
-     * @throws Exception
-     */
-    public String encrypt(String plain_text) throws Exception {
-        byte[] out = transform(true, plain_text.getBytes());
-        return new String(Base64Encoder.encode(out));
-    }  
-  
-    /**
-     * Decrypt
-     * 
-     * @param String cipherText
-     * @return String
-     * @throws Exception
-     */
-    public String decrypt(String cipher_text) throws Exception {
-    	byte[] out = transform(false, Base64Encoder.decode(cipher_text));
-        return new String(out).trim();
-    }  
-  
-    /**
-     * AES Encryption
-     * 
-     * @param boolean encrypt_or_decrypt ENCRYPT/DECRYPT mode
-     * @param ByteArray input_bytes
-     * @return ByteArray
-     * @throws Exception
-     */
-    private byte[] transform(boolean encrypt_or_decrypt, byte[] input_bytes) throws Exception {  
-    	ByteArrayOutputStream output = new ByteArrayOutputStream();
-    	byte[] iv_bytes = "0123456789012345".getBytes();
-    	byte[] key_bytes = md5(this.CIPHER_KEY);
-
-    	SecretKeySpec key = new SecretKeySpec(key_bytes, "AES");
-        IvParameterSpec ivSpec = new IvParameterSpec(iv_bytes);
-        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-
-        if(encrypt_or_decrypt) {
-	        cipher.init(Cipher.ENCRYPT_MODE, key, ivSpec);
-	    	ByteArrayInputStream b_in = new ByteArrayInputStream(input_bytes);
-	        CipherInputStream c_in = new CipherInputStream(b_in, cipher);
-	        int ch;
-	        while ((ch = c_in.read()) >= 0) {
-	        	output.write(ch);
-	        }
-        } else {
-        	cipher.init(Cipher.DECRYPT_MODE, key, ivSpec);
-        	CipherOutputStream c_out = new CipherOutputStream(output, cipher);
-        	c_out.write(input_bytes);
-        	c_out.close();
-        }
-        return output.toByteArray();  
-    }
-    
-    /**
-     * Sign Message
-     * 
-     * @param String input
-     * @return String as HashText
-     */
-	public static String getHMacSHA256(String secret_key, String input) {
-		try {
-			Key KEY = new SecretKeySpec(input.getBytes("UTF-8"), "HmacSHA256");
-			Mac sha256_HMAC = Mac.getInstance("HMACSHA256");
-	    	
-			sha256_HMAC.init(KEY);
-			byte[] mac_data = sha256_HMAC.doFinal(secret_key.getBytes());
-	    	
-	    	BigInteger number = new BigInteger(1, mac_data);
-	    	String hashtext = number.toString(16);
-            
-            return hashtext;
-		} catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-	}
-	/**
-	 * Get MD5
-	 * @param string
-	 * @return
-	 */
-	public static byte[] md5(String string) { 
-	    byte[] hash; 
-	 
-	    try { 
-	        hash = MessageDigest.getInstance("MD5").digest(string.getBytes("UTF-8")); 
-	    } catch (NoSuchAlgorithmException e) { 
-	        throw new RuntimeException("MD5 should be supported!", e); 
-	    } catch (UnsupportedEncodingException e) { 
-	        throw new RuntimeException("UTF-8 should be supported!", e); 
-	    } 
-	 
-	    StringBuilder hex = new StringBuilder(hash.length * 2); 
-	    for (byte b : hash) { 
-	        if ((b & 0xFF) < 0x10) hex.append("0"); 
-	        hex.append(Integer.toHexString(b & 0xFF)); 
-	    }
-	    return hexStringToByteArray(hex.toString());
-	}
-	
-	public static byte[] hexStringToByteArray(String s) {
-        int len = s.length();
-        byte[] data = new byte[len / 2];
-        for (int i = 0; i < len; i += 2) {
-            data[i / 2] = (byte) ((Character.digit(s.charAt(i), 16) << 4)
-                    + Character.digit(s.charAt(i+1), 16));
-        }
-        return data;
-    }
-}
+package pubnub.crypto;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * PubNub 3.1 Cryptography
+ * 
+ */
+
+public class PubnubCrypto {
+
+	private static final int BLOCK_SIZE = 16;
+	private static final IvParameterSpec IV = new IvParameterSpec("0123456789012345".getBytes());
+	private static final ThreadLocal<byte[]> output_buffer = new ThreadLocal<byte[]>();
+	private static final int HMAC_BLOCK_SIZE = 64;
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final ThreadLocal<Mac> hmac_sha256 = new ThreadLocal<Mac>() {
+		@Override
+		protected Mac initialValue() {
+			try {
+				return Mac.getInstance("HMACSHA256");
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+	};
+	private static final ThreadLocal<char[]> hex_buffer = new ThreadLocal<char[]>() {
+		@Override
+		protected char[] initialValue() {
+			return new char[64];
+		}
+	};
+
+	private final String CIPHER_KEY;  
+	private final SecretKeySpec KEY;
+	private final ThreadLocal<Cipher> encrypt_cipher = new CipherCache(Cipher.ENCRYPT_MODE);
+	private final ThreadLocal<Cipher> decrypt_cipher = new CipherCache(Cipher.DECRYPT_MODE);
+	  
+    public PubnubCrypto(String CIPHER_KEY) {
+        this.CIPHER_KEY = CIPHER_KEY;  
+        this.KEY = new SecretKeySpec(md5(CIPHER_KEY), "AES");
+    }  
+
+    /**
+     * Per-thread Cipher initialized once with the derived key,
+     * reused across messages since doFinal resets it.
+     */
+    private class CipherCache extends ThreadLocal<Cipher> {
+    	private final int mode;
+
+    	CipherCache(int mode) {
+    		this.mode = mode;
+    	}
+
+    	@Override
+    	protected Cipher initialValue() {
+    		try {
+    			Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+    			cipher.init(mode, KEY, IV);
+    			return cipher;
+    		} catch (Exception e) {
+    			throw new RuntimeException(e);
+    		}
+    	}
+    }
+  
+    /**
+     * Encrypt
+     * 
+     * @param JSONObject Message to encrypt
+     * @return JSONObject as Encrypted message
+     */
+    @SuppressWarnings("unchecked")
+	public JSONObject encrypt(JSONObject message) {
+    	try {
+    		JSONObject message_encrypted = new JSONObject();
+        	Iterator<String> it = message.keys();
+        	
+	    	while(it.hasNext()) {
+	    		String key = it.next();
+	    		String val = message.getString(key);
+	    		message_encrypted.put(key, encrypt(val));
+	    	}
+	    	return message_encrypted;
+
+    	} catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+    
+    /**
+     * Decrypt
+     * 
+     * @param JSONObject Encrypted message
+     * @return JSONObject Message decrypted
+     */
+    @SuppressWarnings("unchecked")
+	public JSONObject decrypt(JSONObject message_encrypted) {
+    	try {
+    		JSONObject message_decrypted = new JSONObject();
+        	Iterator<String> it = message_encrypted.keys();
+        	
+	    	while(it.hasNext()) {
+	    		String key = it.next();
+	    		String encrypted_str = message_encrypted.getString(key);
+	    		String decrypted_str = decrypt(encrypted_str);
+	    		message_decrypted.put(key, decrypted_str);
+	    	}
+	    	return message_decrypted;
+    	} catch(Exception e) {
+    		throw new RuntimeException(e);
+    	}
+    }
+    
+    /**
+     * Encrypt JSONArray
+     * 
+     * @param JSONArray - Encrypted JSONArray
+     * @return JSONArray - Decrypted JSONArray
+     */
+    public JSONArray encryptJSONArray(JSONArray jsona_arry) {
+    	try {
+    		JSONArray jsona_decrypted = new JSONArray();
+    		
+    		for (int i = 0; i < jsona_arry.length(); i++) {
+				 Object o = jsona_arry.get(i);
+				 if(o != null) {
+					 if(o instanceof JSONObject) {
+						 jsona_decrypted.put(i, encrypt((JSONObject)o));
+					 } else if(o instanceof JSONArray) {
+						 jsona_decrypted.put(i, encryptJSONArray((JSONArray)o));
+					 } else if(o instanceof String) {
+						 jsona_decrypted.put(i, encrypt(o.toString()));
+					 }
+				 }
+			}
+    		
+    		return jsona_decrypted;
+    		
+    	} catch(Exception e) {
+    		throw new RuntimeException(e);
+    	}
+    }
+    
+    /**
+     * Decrypt JSONArray
+     * 
+     * @param JSONArray - Encrypted JSONArray
+     * @return JSONArray - Decrypted JSONArray
+     */
+    public JSONArray decryptJSONArray(JSONArray jsona_encrypted) {
+    	try {
+    		JSONArray jsona_decrypted = new JSONArray();
+    		
+    		for (int i = 0; i < jsona_encrypted.length(); i++) {
+				 Object o = jsona_encrypted.get(i);
+				 if(o != null) {
+					 if(o instanceof JSONObject) {
+						 jsona_decrypted.put(i, decrypt((JSONObject)o));
+					 } else if(o instanceof JSONArray) {
+						 jsona_decrypted.put(i, decryptJSONArray((JSONArray)o));
+					 } else if(o instanceof String) {
+						 jsona_decrypted.put(i, decrypt(o.toString()));
+					 }
+				 }
+			}
+    		
+    		return jsona_decrypted;
+    		
+    	} catch(Exception e) {
+    		throw new RuntimeException(e);
+    	}
+    }
+    
+    /**
+     * Encrypt
+     * 
+     * @param String plain text to encrypt
+     * @return String cipher text
+     * @throws Exception
+     */
+    public String encrypt(String plain_text) throws Exception {
+        byte[] in = plain_text.getBytes();
+        byte[] out = output(maxOutputSize(in.length));
+        int length = transform(true, in, in.length, out);
+        return new String(Base64Encoder.encode(out, length));
+    }  
+  
+    /**
+     * Decrypt
+     * 
+     * @param String cipherText
+     * @return String
+     * @throws Exception
+     */
+    public String decrypt(String cipher_text) throws Exception {
+    	byte[] in = Base64Encoder.decode(cipher_text);
+    	byte[] out = output(maxOutputSize(in.length));
+    	int length = transform(false, in, in.length, out);
+        return new String(out, 0, length).trim();
+    }  
+
+    /**
+     * Encrypt ByteBuffer
+     * 
+     * Encrypts the remaining bytes of input into output, which may be
+     * a direct buffer and needs maxOutputSize(input.remaining()) bytes.
+     * 
+     * @param ByteBuffer input plain bytes
+     * @param ByteBuffer output for cipher bytes
+     * @return int number of bytes written to output
+     * @throws GeneralSecurityException
+     */
+    public int encrypt(ByteBuffer input, ByteBuffer output) throws GeneralSecurityException {
+    	return transform(true, input, output);
+    }
+
+    /**
+     * Decrypt ByteBuffer
+     * 
+     * Decrypts the remaining bytes of input into output, which may be
+     * a direct buffer and needs maxOutputSize(input.remaining()) bytes.
+     * 
+     * @param ByteBuffer input cipher bytes
+     * @param ByteBuffer output for plain bytes
+     * @return int number of bytes written to output
+     * @throws GeneralSecurityException
+     */
+    public int decrypt(ByteBuffer input, ByteBuffer output) throws GeneralSecurityException {
+    	return transform(false, input, output);
+    }
+
+    /**
+     * Max Output Size
+     * 
+     * @param int input_length bytes to encrypt or decrypt
+     * @return int upper bound of the transformed length
+     */
+    public static int maxOutputSize(int input_length) {
+    	return (input_length / BLOCK_SIZE + 1) * BLOCK_SIZE;
+    }
+  
+    /**
+     * AES Encryption
+     * 
+     * @param boolean encrypt_or_decrypt ENCRYPT/DECRYPT mode
+     * @param ByteArray input_bytes
+     * @param int input_length
+     * @param ByteArray output_bytes
+     * @return int number of bytes written to output_bytes
+     * @throws Exception
+     */
+    private int transform(boolean encrypt_or_decrypt, byte[] input_bytes, int input_length, byte[] output_bytes) throws Exception {  
+    	ThreadLocal<Cipher> cache = encrypt_or_decrypt ? encrypt_cipher : decrypt_cipher;
+    	Cipher cipher = cache.get();
+
+    	try {
+    		return cipher.doFinal(input_bytes, 0, input_length, output_bytes, 0);
+    	} catch (GeneralSecurityException e) {
+    		// Cipher State Unknown, Initialize Again Next Time
+    		cache.remove();
+    		if (encrypt_or_decrypt) {
+    			throw e;
+    		}
+    		// Undecryptable Input, Empty as CipherOutputStream Did
+    		return 0;
+    	}
+    }
+
+    /**
+     * AES Encryption
+     * 
+     * @param boolean encrypt_or_decrypt ENCRYPT/DECRYPT mode
+     * @param ByteBuffer input
+     * @param ByteBuffer output
+     * @return int number of bytes written to output
+     * @throws GeneralSecurityException
+     */
+    private int transform(boolean encrypt_or_decrypt, ByteBuffer input, ByteBuffer output) throws GeneralSecurityException {  
+    	ThreadLocal<Cipher> cache = encrypt_or_decrypt ? encrypt_cipher : decrypt_cipher;
+    	Cipher cipher = cache.get();
+
+    	try {
+    		return cipher.doFinal(input, output);
+    	} catch (GeneralSecurityException e) {
+    		// Cipher State Unknown, Initialize Again Next Time
+    		cache.remove();
+    		throw e;
+    	}
+    }
+
+    /**
+     * Output Buffer
+     * 
+     * @param int length needed
+     * @return ByteArray reused by the calling thread, at least length long
+     */
+    private static byte[] output(int length) {
+    	byte[] out = output_buffer.get();
+    	if (out == null || out.length < length) {
+    		out = new byte[Math.max(length, 1024)];
+    		output_buffer.set(out);
+    	}
+    	return out;
+    }
+    
+    /**
+     * Sign Message
+     * 
+     * @param String input
+     * @return String as HashText
+     */
+	public static String getHMacSHA256(String secret_key, String input) {
+		try {
+			Key KEY = new SecretKeySpec(input.getBytes("UTF-8"), "HmacSHA256");
+			Mac sha256_HMAC = hmac_sha256.get();
+	    	
+			sha256_HMAC.init(KEY);
+			byte[] mac_data = sha256_HMAC.doFinal(secret_key.getBytes());
+	    	
+            return toHex(mac_data);
+		} catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+	}
+
+	/**
+	 * Signer
+	 * 
+	 * Signs like getHMacSHA256(secret_key, prefix + input) for a prefix
+	 * fixed per Pubnub instance. HMAC hashes keys longer than its block
+	 * size, so the prefix is hashed once here and only the input is
+	 * hashed per message.
+	 */
+	public static class Signer {
+		private final byte[] prefix_bytes;
+		private final byte[] secret_key_bytes;
+		private final MessageDigest prefix_digest;
+
+		public Signer(String secret_key, String prefix) {
+			try {
+				this.prefix_bytes = prefix.getBytes("UTF-8");
+				this.secret_key_bytes = secret_key.getBytes();
+				this.prefix_digest = MessageDigest.getInstance("SHA-256");
+				this.prefix_digest.update(prefix_bytes);
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		/**
+		 * Sign Message
+		 * 
+		 * @param String input following the prefix
+		 * @return String as HashText
+		 */
+		public String sign(String input) {
+			try {
+				byte[] input_bytes = input.getBytes("UTF-8");
+				byte[] key_bytes;
+
+				if (prefix_bytes.length + input_bytes.length > HMAC_BLOCK_SIZE) {
+					MessageDigest md = (MessageDigest) prefix_digest.clone();
+					key_bytes = md.digest(input_bytes);
+				} else {
+					key_bytes = new byte[prefix_bytes.length + input_bytes.length];
+					System.arraycopy(prefix_bytes, 0, key_bytes, 0, prefix_bytes.length);
+					System.arraycopy(input_bytes, 0, key_bytes, prefix_bytes.length, input_bytes.length);
+				}
+
+				Mac sha256_HMAC = hmac_sha256.get();
+				sha256_HMAC.init(new SecretKeySpec(key_bytes, "HmacSHA256"));
+				return toHex(sha256_HMAC.doFinal(secret_key_bytes));
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	/**
+	 * Hex Encode
+	 * 
+	 * Lower case and without leading zeros, as BigInteger.toString(16).
+	 * 
+	 * @param ByteArray data
+	 * @return String hex
+	 */
+	private static String toHex(byte[] data) {
+		char[] out = hex_buffer.get();
+		if (out.length < data.length * 2) {
+			out = new char[data.length * 2];
+			hex_buffer.set(out);
+		}
+		int o = 0;
+		for (byte b : data) {
+			out[o++] = HEX[(b >> 4) & 0xF];
+			out[o++] = HEX[b & 0xF];
+		}
+		int start = 0;
+		while (start < o - 1 && out[start] == '0') {
+			start++;
+		}
+		return new String(out, start, o - start);
+	}
+
+	/**
+	 * Get MD5
+	 * @param string
+	 * @return
+	 */
+	public static byte[] md5(String string) { 
+	    byte[] hash; 
+	 
+	    try { 
+	        hash = MessageDigest.getInstance("MD5").digest(string.getBytes("UTF-8")); 
+	    } catch (NoSuchAlgorithmException e) { 
+	        throw new RuntimeException("MD5 should be supported!", e); 
+	    } catch (UnsupportedEncodingException e) { 
+	        throw new RuntimeException("UTF-8 should be supported!", e); 
+	    } 
+	    return hash;
+	}
+	
+	public static byte[] hexStringToByteArray(String s) {
+        int len = s.length();
+        byte[] data = new byte[len / 2];
+        for (int i = 0; i < len; i += 2) {
+            data[i / 2] = (byte) ((Character.digit(s.charAt(i), 16) << 4)
+                    + Character.digit(s.charAt(i+1), 16));
+        }
+        return data;
+    }
+}
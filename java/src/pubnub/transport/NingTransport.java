@@ -0,0 +1,223 @@
+package pubnub.transport;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.json.JSONArray;
+
+import com.ning.http.client.AsyncCompletionHandler;
+import com.ning.http.client.AsyncHttpClient;
+import com.ning.http.client.AsyncHttpClientConfig;
+import com.ning.http.client.AsyncHttpClientConfig.Builder;
+import com.ning.http.client.RequestBuilder;
+import com.ning.http.client.Response;
+
+/**
+ * PubNub 3.1 Ning Transport
+ *
+ * Default transport on the Ning AsyncHttpClient with a keep-alive
+ * connection pool. The client is created on the first request.
+ *
+ * Response handlers run on a pool of worker threads rather than on the
+ * Netty I/O threads, so a handler that blocks, for example by making
+ * another request, never stalls the connections of other requests.
+ *
+ * @package pubnub.transport
+ */
+public class NingTransport implements Transport {
+    private int MAX_CONNECTIONS_PER_HOST = 100;
+    private int IDLE_CONNECTION_TIMEOUT  = 60000;
+    private int REQUEST_TIMEOUT          = 310000;
+    private AsyncHttpClient ahc;
+    private final ExecutorService workers = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "pubnub-ning-worker-" + count.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    /**
+     * Ning Transport
+     *
+     * Default pool settings.
+     */
+    public NingTransport() {}
+
+    /**
+     * Ning Transport
+     *
+     * @param int maximum pooled connections per host.
+     * @param int idle timeout in milliseconds.
+     * @param int request timeout in milliseconds.
+     */
+    public NingTransport( int max_connections, int idle_timeout_in_ms, int request_timeout_in_ms ) {
+        this.MAX_CONNECTIONS_PER_HOST = max_connections;
+        this.IDLE_CONNECTION_TIMEOUT  = idle_timeout_in_ms;
+        this.REQUEST_TIMEOUT          = request_timeout_in_ms;
+    }
+
+    public Future<JSONArray> get( String url, Map<String, String> headers, final Handler handler ) {
+        final ResponseFuture future = new ResponseFuture();
+        AsyncCompletionHandler<JSONArray> ning_handler = new AsyncCompletionHandler<JSONArray>() {
+            @Override
+            public JSONArray onCompleted(Response r) throws Exception {
+                final String ce = r.getHeader("Content-Encoding");
+                final InputStream body = r.getResponseBodyAsStream();
+
+                _work(new Runnable() {
+                    public void run() {
+                        if (future.isDone())
+                            return;
+
+                        JSONArray value = null;
+                        Throwable error = null;
+                        try {
+                            InputStream is = body;
+                            if (ce != null && ce.equalsIgnoreCase("gzip")) {
+                                // Decoding using 'gzip'
+                                is = new GZIPInputStream(is);
+                            }
+                            value = handler.onResponse(is);
+                        } catch (Throwable t) {
+                            error = t;
+                        }
+                        future.complete(value, error);
+                    }
+                });
+                return null;
+            }
+
+            @Override
+            public void onThrowable(final Throwable t) {
+                if (!future.complete(null, t))
+                    return;
+                _work(new Runnable() {
+                    public void run() {
+                        handler.onThrowable(t);
+                    }
+                });
+            }
+        };
+
+        try {
+            // Prepare Asynchronous HTTP Request
+            RequestBuilder rb = new RequestBuilder("GET");
+            rb.setUrl(url);
+            if (headers != null) {
+                for (Map.Entry<String, String> h : headers.entrySet()) {
+                    rb.addHeader(h.getKey(), h.getValue());
+                }
+            }
+            rb.addHeader("Accept-Encoding", "gzip");
+
+            // Execute Request
+            future.request = _client().executeRequest(rb.build(), ning_handler);
+
+            // Cancelled While Sending
+            if (future.isCancelled())
+                future.request.cancel(true);
+        } catch (Exception e) {
+            if (future.complete(null, e))
+                handler.onThrowable(e);
+        }
+        return future;
+    }
+
+    public synchronized void close() {
+        if (this.ahc != null) {
+            this.ahc.close();
+            this.ahc = null;
+        }
+        workers.shutdown();
+    }
+
+    /**
+     * Run on Worker
+     *
+     * Run a task on a worker thread, or on this thread once the workers
+     * are shut down.
+     *
+     * @param Runnable task to run.
+     */
+    private void _work( Runnable task ) {
+        try {
+            workers.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    /**
+     * Response Future
+     *
+     * Completed once the handler has run on a worker thread. Cancelling it
+     * aborts the Ning request.
+     */
+    private static class ResponseFuture extends FutureTask<JSONArray> {
+        private static final Callable<JSONArray> UNUSED = new Callable<JSONArray>() {
+            public JSONArray call() { return null; }
+        };
+
+        final AtomicBoolean completed = new AtomicBoolean(false);
+        volatile Future<JSONArray> request;
+
+        ResponseFuture() {
+            super(UNUSED);
+        }
+
+        boolean complete( JSONArray value, Throwable error ) {
+            if (!completed.compareAndSet(false, true))
+                return false;
+            if (error != null)
+                setException(error);
+            else
+                set(value);
+            return true;
+        }
+
+        @Override
+        public boolean cancel( boolean interrupt ) {
+            if (!completed.compareAndSet(false, true))
+                return false;
+            super.cancel(false);
+
+            // Not Sent Yet? get() Cancels It After Sending
+            Future<JSONArray> r = request;
+            if (r != null)
+                r.cancel(true);
+            return true;
+        }
+    }
+
+    /**
+     * HTTP Client
+     *
+     * Shared client with keep-alive connection pooling, created on first use.
+     *
+     * @return AsyncHttpClient.
+     */
+    private synchronized AsyncHttpClient _client() {
+        if (this.ahc == null) {
+            Builder cb = new AsyncHttpClientConfig.Builder();
+            cb.setRequestTimeoutInMs(REQUEST_TIMEOUT);
+            cb.setAllowPoolingConnection(true);
+            cb.setAllowSslConnectionPool(true);
+            cb.setMaximumConnectionsPerHost(MAX_CONNECTIONS_PER_HOST);
+            cb.setIdleConnectionInPoolTimeoutInMs(IDLE_CONNECTION_TIMEOUT);
+            this.ahc = new AsyncHttpClient(cb.build());
+        }
+        return this.ahc;
+    }
+}
@@ -0,0 +1,1051 @@
+package pubnub.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLParameters;
+
+import org.json.JSONArray;
+
+/**
+ * PubNub 3.1 NIO Transport
+ *
+ * Small HTTP/1.1 client on java.nio that runs every request on a few
+ * selector threads. It speaks only what the PubNub REST API needs: GET,
+ * Content-Length or chunked bodies, gzip content encoding, keep-alive
+ * connection reuse and TLS through SSLEngine with hostname verification.
+ * An idle long-poll costs one socket and a few buffers instead of a thread.
+ *
+ * Each selector thread keeps its own pool of idle connections. Host names
+ * are resolved and response handlers run on a pool of worker threads, so
+ * a slow lookup or a handler that blocks, for example by making another
+ * request, never stalls a selector thread. After close() requests fail
+ * right away.
+ *
+ * @package pubnub.transport
+ */
+public class NioTransport implements Transport {
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private int MAX_IDLE_CONNECTIONS_PER_HOST = 100;
+    private int IDLE_CONNECTION_TIMEOUT       = 60000;
+    private int REQUEST_TIMEOUT               = 310000;
+    private final SSLContext ssl_context;
+    private final EventLoop[] loops;
+    private final AtomicInteger next_loop = new AtomicInteger();
+    private final ExecutorService workers = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "pubnub-nio-worker-" + count.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    /**
+     * NIO Transport
+     *
+     * Two selector threads and the default SSL context.
+     */
+    public NioTransport() {
+        this(2);
+    }
+
+    /**
+     * NIO Transport
+     *
+     * @param int selector threads.
+     */
+    public NioTransport( int threads ) {
+        this(threads, _defaultContext());
+    }
+
+    /**
+     * NIO Transport
+     *
+     * @param int selector threads.
+     * @param SSLContext context for https origins.
+     */
+    public NioTransport( int threads, SSLContext ssl_context ) {
+        this.ssl_context = ssl_context;
+        this.loops = new EventLoop[threads];
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                loops[i] = new EventLoop(Selector.open());
+                Thread t = new Thread(loops[i], "pubnub-nio-" + i);
+                t.setDaemon(true);
+                t.start();
+            }
+        } catch (IOException e) {
+            for (EventLoop loop : loops) {
+                if (loop != null)
+                    loop.shutdown();
+            }
+            workers.shutdown();
+            throw new IllegalStateException("Failed Opening Selector", e);
+        }
+    }
+
+    /**
+     * Max Idle Connections Per Host
+     *
+     * Must be set before the first request is made.
+     *
+     * @param int idle connections kept per host and selector thread.
+     */
+    public void setMaxIdleConnectionsPerHost( int max_connections ) {
+        this.MAX_IDLE_CONNECTIONS_PER_HOST = max_connections;
+    }
+
+    /**
+     * Idle Connection Timeout
+     *
+     * Must be set before the first request is made.
+     *
+     * @param int idle timeout in milliseconds.
+     */
+    public void setIdleConnectionTimeout( int timeout_in_ms ) {
+        this.IDLE_CONNECTION_TIMEOUT = timeout_in_ms;
+    }
+
+    /**
+     * Request Timeout
+     *
+     * Must be set before the first request is made.
+     *
+     * @param int time in milliseconds a request may take, connect included.
+     */
+    public void setRequestTimeout( int timeout_in_ms ) {
+        this.REQUEST_TIMEOUT = timeout_in_ms;
+    }
+
+    public Future<JSONArray> get( String url, Map<String, String> headers, Handler handler ) {
+        final Request r = new Request();
+        r.handler = handler;
+        r.future  = new ResponseFuture(r);
+        r.loop    = loops[(next_loop.getAndIncrement() & 0x7fffffff) % loops.length];
+
+        try {
+            URL u = new URL(url);
+            r.ssl  = u.getProtocol().equalsIgnoreCase("https");
+            r.host = u.getHost();
+            r.port = u.getPort() > 0 ? u.getPort() : (r.ssl ? 443 : 80);
+            r.pool_key = (r.ssl ? "https://" : "http://") + r.host + ':' + r.port;
+
+            // Build Request
+            String path = u.getFile().length() > 0 ? u.getFile() : "/";
+            StringBuilder head = new StringBuilder(path.length() + 256);
+            head.append("GET ").append(path).append(" HTTP/1.1\r\n");
+            head.append("Host: ").append(r.host);
+            if (u.getPort() > 0)
+                head.append(':').append(u.getPort());
+            head.append("\r\n");
+            if (headers != null) {
+                for (Map.Entry<String, String> h : headers.entrySet()) {
+                    head.append(h.getKey()).append(": ").append(h.getValue()).append("\r\n");
+                }
+            }
+            head.append("Accept-Encoding: gzip\r\n");
+            head.append("Connection: keep-alive\r\n\r\n");
+            r.bytes = head.toString().getBytes("ISO-8859-1");
+        } catch (IOException e) {
+            _failRequest(r, e);
+            return r.future;
+        }
+
+        boolean queued = r.loop.execute(new Runnable() {
+            public void run() {
+                r.loop._start(r);
+            }
+        });
+        if (!queued)
+            _failRequest(r, new IOException("Transport Closed"));
+        return r.future;
+    }
+
+    public void close() {
+        for (EventLoop loop : loops) {
+            if (loop != null)
+                loop.shutdown();
+        }
+        workers.shutdown();
+    }
+
+    /**
+     * Run on Worker
+     *
+     * Run a task on a worker thread, or on this thread once the workers
+     * are shut down.
+     *
+     * @param Runnable task to run.
+     */
+    private void _work( Runnable task ) {
+        try {
+            workers.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    /**
+     * Fail Request
+     *
+     * Complete the future and tell the handler, on a worker thread.
+     *
+     * @param Request request that failed.
+     * @param Throwable why.
+     */
+    private void _failRequest( final Request r, final Throwable t ) {
+        if (!r.future.complete(null, t))
+            return;
+        _work(new Runnable() {
+            public void run() {
+                try { r.handler.onThrowable(t); }
+                catch (Throwable ignore) {}
+            }
+        });
+    }
+
+    /**
+     * Default SSL Context
+     *
+     * @return SSLContext of the JVM.
+     */
+    private static SSLContext _defaultContext() {
+        try {
+            return SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    private class Request {
+        String host;
+        int port;
+        InetSocketAddress address;
+        boolean ssl;
+        String pool_key;
+        byte[] bytes;
+        Handler handler;
+        ResponseFuture future;
+        EventLoop loop;
+        Connection connection;
+        long deadline;
+        boolean reused;
+        boolean retried;
+    }
+
+    private class Connection {
+        static final int HEAD = 0, BODY = 1, CHUNK_SIZE = 2, CHUNK_DATA = 3,
+                         CHUNK_END = 4, TRAILERS = 5, DONE = 6;
+
+        SocketChannel channel;
+        SelectionKey key;
+        String pool_key;
+        SSLEngine engine;
+        boolean connecting;
+        ByteBuffer app_in;
+        ByteBuffer net_in;
+        ByteBuffer net_out;
+        ByteBuffer out;
+        Request request;
+        long idle_since;
+
+        // Response Parser
+        int state;
+        int status;
+        long remaining;
+        boolean chunked;
+        boolean gzip;
+        boolean keep_alive;
+        boolean until_close;
+        boolean got_bytes;
+        ByteArrayOutputStream body;
+
+        void reset() {
+            state       = HEAD;
+            status      = 0;
+            remaining   = -1;
+            chunked     = false;
+            gzip        = false;
+            keep_alive  = true;
+            until_close = false;
+            got_bytes   = false;
+            body        = new ByteArrayOutputStream();
+        }
+    }
+
+    private class ResponseFuture implements Future<JSONArray> {
+        final Request request;
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicBoolean completed = new AtomicBoolean(false);
+        volatile JSONArray value;
+        volatile Throwable error;
+        volatile boolean cancelled;
+
+        ResponseFuture( Request request ) {
+            this.request = request;
+        }
+
+        boolean complete( JSONArray value, Throwable error ) {
+            if (!completed.compareAndSet(false, true))
+                return false;
+            this.value = value;
+            this.error = error;
+            done.countDown();
+            return true;
+        }
+
+        public boolean cancel( boolean interrupt ) {
+            if (!completed.compareAndSet(false, true))
+                return false;
+            cancelled = true;
+            done.countDown();
+
+            // Loop Stopped? It Closed the Connection Already
+            request.loop.execute(new Runnable() {
+                public void run() {
+                    request.loop._abort(request);
+                }
+            });
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        public JSONArray get() throws InterruptedException, ExecutionException {
+            done.await();
+            return _result();
+        }
+
+        public JSONArray get( long timeout, TimeUnit unit )
+                throws InterruptedException, ExecutionException, TimeoutException {
+            if (!done.await(timeout, unit))
+                throw new TimeoutException();
+            return _result();
+        }
+
+        private JSONArray _result() throws ExecutionException {
+            if (cancelled)
+                throw new CancellationException();
+            if (error != null)
+                throw new ExecutionException(error);
+            return value;
+        }
+    }
+
+    private class EventLoop implements Runnable {
+        final Selector selector;
+        final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+        final Map<String, LinkedList<Connection>> idle =
+            new HashMap<String, LinkedList<Connection>>();
+        final Set<Connection> connections = new HashSet<Connection>();
+        volatile boolean running = true;
+
+        EventLoop( Selector selector ) {
+            this.selector = selector;
+        }
+
+        /**
+         * Execute
+         *
+         * Queue a task for the selector thread.
+         *
+         * @param Runnable task to run.
+         * @return boolean false if the loop has stopped and the task will
+         *  not run.
+         */
+        boolean execute( Runnable task ) {
+            tasks.offer(task);
+            selector.wakeup();
+
+            // Stopped? Take Task Back Unless the Loop Got It
+            if (!running && tasks.remove(task))
+                return false;
+            return true;
+        }
+
+        void shutdown() {
+            running = false;
+            selector.wakeup();
+        }
+
+        public void run() {
+            while (running) {
+                try {
+                    selector.select(1000);
+
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) {
+                        task.run();
+                    }
+
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        _ready((Connection) key.attachment(), key);
+                    }
+                    selector.selectedKeys().clear();
+
+                    _expire();
+                } catch (Throwable t) {
+                    // Keep Loop Alive
+                }
+            }
+
+            // Fail Everything Left
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+            for (Connection c : new ArrayList<Connection>(connections)) {
+                Request r = c.request;
+                _close(c);
+                if (r != null)
+                    _failRequest(r, new IOException("Transport Closed"));
+            }
+            try { selector.close(); }
+            catch (IOException e) {}
+        }
+
+        /**
+         * Start Request
+         *
+         * Send on an idle pooled connection or open a new one.
+         *
+         * @param Request request to send.
+         */
+        void _start( Request r ) {
+            if (r.future.isDone())
+                return;
+            if (!running) {
+                _failRequest(r, new IOException("Transport Closed"));
+                return;
+            }
+            if (r.deadline == 0)
+                r.deadline = System.currentTimeMillis() + REQUEST_TIMEOUT;
+
+            // Reuse Idle Connection
+            Connection c = r.retried ? null : _idle(r.pool_key);
+            if (c != null) {
+                r.reused = true;
+                _begin(c, r);
+                return;
+            }
+            r.reused = false;
+
+            // Resolve Host on a Worker, Then Start Again
+            if (r.address == null) {
+                _resolve(r);
+                return;
+            }
+
+            SocketChannel channel = null;
+            try {
+                channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                channel.socket().setKeepAlive(true);
+
+                c = new Connection();
+                c.channel    = channel;
+                c.pool_key   = r.pool_key;
+                c.connecting = !channel.connect(r.address);
+                c.key        = channel.register(selector, c.connecting ? SelectionKey.OP_CONNECT : 0, c);
+
+                if (r.ssl) {
+                    if (ssl_context == null)
+                        throw new IOException("No SSL Context");
+                    c.engine = ssl_context.createSSLEngine(r.host, r.port);
+                    c.engine.setUseClientMode(true);
+
+                    // Verify Certificate Is for This Host
+                    SSLParameters params = c.engine.getSSLParameters();
+                    params.setEndpointIdentificationAlgorithm("HTTPS");
+                    c.engine.setSSLParameters(params);
+
+                    c.app_in  = ByteBuffer.allocate(c.engine.getSession().getApplicationBufferSize());
+                    c.net_in  = ByteBuffer.allocate(c.engine.getSession().getPacketBufferSize());
+                    c.net_out = ByteBuffer.allocate(c.engine.getSession().getPacketBufferSize());
+                    c.engine.beginHandshake();
+                } else {
+                    c.app_in = ByteBuffer.allocate(BUFFER_SIZE);
+                }
+                connections.add(c);
+            } catch (IOException e) {
+                if (channel != null) {
+                    try { channel.close(); }
+                    catch (IOException ce) {}
+                }
+                _failRequest(r, e);
+                return;
+            }
+
+            _begin(c, r);
+        }
+
+        /**
+         * Resolve
+         *
+         * Look the host up on a worker thread and start the request again
+         * on this loop with the address, or fail it.
+         *
+         * @param Request request waiting for its address.
+         */
+        void _resolve( final Request r ) {
+            _work(new Runnable() {
+                public void run() {
+                    Runnable next;
+                    try {
+                        final InetSocketAddress address =
+                            new InetSocketAddress(InetAddress.getByName(r.host), r.port);
+                        next = new Runnable() {
+                            public void run() {
+                                r.address = address;
+                                if (System.currentTimeMillis() > r.deadline)
+                                    _failRequest(r, new TimeoutException("Request Timeout"));
+                                else
+                                    _start(r);
+                            }
+                        };
+                    } catch (final IOException e) {
+                        next = new Runnable() {
+                            public void run() {
+                                _failRequest(r, e);
+                            }
+                        };
+                    }
+                    if (!execute(next))
+                        _failRequest(r, new IOException("Transport Closed"));
+                }
+            });
+        }
+
+        /**
+         * Begin Request
+         *
+         * @param Connection connection to send on.
+         * @param Request request to send.
+         */
+        void _begin( Connection c, Request r ) {
+            c.request    = r;
+            c.out        = ByteBuffer.wrap(r.bytes);
+            r.connection = c;
+            c.reset();
+
+            if (!c.connecting)
+                _ready(c, c.key);
+        }
+
+        /**
+         * Abort Request
+         *
+         * A cancelled request leaves its connection in an unknown state,
+         * so the connection is closed.
+         *
+         * @param Request cancelled request.
+         */
+        void _abort( Request r ) {
+            Connection c = r.connection;
+            if (running && c != null && c.request == r)
+                _close(c);
+        }
+
+        /**
+         * Ready
+         *
+         * Handle a selected connection: finish connecting, write what is
+         * pending, read and parse what arrived.
+         *
+         * @param Connection connection.
+         * @param SelectionKey its key.
+         */
+        void _ready( Connection c, SelectionKey key ) {
+            try {
+                if (!key.isValid())
+                    return;
+                if (c.connecting) {
+                    if (!key.isConnectable() || !c.channel.finishConnect())
+                        return;
+                    c.connecting = false;
+                }
+
+                boolean pending = _write(c);
+                int n = _read(c);
+                if (c.request != null && c.engine != null)
+                    pending = _write(c);
+
+                if (c.request != null)
+                    _parse(c);
+
+                if (n < 0) {
+                    // Closed by Server
+                    if (c.request != null && c.until_close && c.state == Connection.BODY) {
+                        c.keep_alive = false;
+                        _complete(c);
+                    } else if (c.request != null) {
+                        _fail(c, new IOException("Connection Closed"));
+                    } else {
+                        _close(c);
+                    }
+                    return;
+                }
+
+                if (c.key.isValid())
+                    c.key.interestOps(SelectionKey.OP_READ | (pending ? SelectionKey.OP_WRITE : 0));
+            } catch (Exception e) {
+                _fail(c, e);
+            }
+        }
+
+        /**
+         * Write
+         *
+         * @param Connection connection.
+         * @return boolean true if bytes are still waiting for the socket.
+         */
+        boolean _write( Connection c ) throws IOException {
+            ByteBuffer src = c.out != null ? c.out : EMPTY;
+
+            if (c.engine == null) {
+                if (src.hasRemaining())
+                    c.channel.write(src);
+                return src.hasRemaining();
+            }
+
+            while (true) {
+                // Flush Encrypted Bytes
+                if (c.net_out.position() > 0) {
+                    c.net_out.flip();
+                    c.channel.write(c.net_out);
+                    c.net_out.compact();
+                    if (c.net_out.position() > 0)
+                        return true;
+                }
+
+                HandshakeStatus hs = c.engine.getHandshakeStatus();
+                if (hs == HandshakeStatus.NEED_TASK) {
+                    _tasks(c.engine);
+                    continue;
+                }
+
+                boolean handshaking = hs != HandshakeStatus.NOT_HANDSHAKING
+                                   && hs != HandshakeStatus.FINISHED;
+                if (hs != HandshakeStatus.NEED_WRAP && (handshaking || !src.hasRemaining()))
+                    return false;
+
+                SSLEngineResult result = c.engine.wrap(src, c.net_out);
+                switch (result.getStatus()) {
+                case BUFFER_OVERFLOW:
+                    c.net_out = _grow(c.net_out, c.engine.getSession().getPacketBufferSize());
+                    continue;
+                case CLOSED:
+                    throw new IOException("SSL Closed");
+                default:
+                    break;
+                }
+                if (result.bytesConsumed() == 0 && result.bytesProduced() == 0
+                        && result.getHandshakeStatus() != HandshakeStatus.NEED_TASK)
+                    return false;
+            }
+        }
+
+        /**
+         * Read
+         *
+         * Read what the socket has and decrypt it into app_in.
+         *
+         * @param Connection connection.
+         * @return int bytes read from the socket, -1 at end of stream.
+         */
+        int _read( Connection c ) throws IOException {
+            if (c.engine == null) {
+                if (!c.app_in.hasRemaining())
+                    c.app_in = _grow(c.app_in, BUFFER_SIZE);
+                return c.channel.read(c.app_in);
+            }
+
+            if (!c.net_in.hasRemaining())
+                c.net_in = _grow(c.net_in, c.engine.getSession().getPacketBufferSize());
+            int n = c.channel.read(c.net_in);
+
+            while (c.net_in.position() > 0) {
+                c.net_in.flip();
+                SSLEngineResult result = c.engine.unwrap(c.net_in, c.app_in);
+                c.net_in.compact();
+
+                switch (result.getStatus()) {
+                case BUFFER_OVERFLOW:
+                    c.app_in = _grow(c.app_in, c.engine.getSession().getApplicationBufferSize());
+                    continue;
+                case BUFFER_UNDERFLOW:
+                    return n;
+                case CLOSED:
+                    return -1;
+                default:
+                    break;
+                }
+
+                HandshakeStatus hs = result.getHandshakeStatus();
+                if (hs == HandshakeStatus.NEED_TASK) {
+                    _tasks(c.engine);
+                    hs = c.engine.getHandshakeStatus();
+                }
+                if (hs == HandshakeStatus.NEED_WRAP)
+                    _write(c);
+
+                if (result.bytesConsumed() == 0 && result.bytesProduced() == 0)
+                    return n;
+            }
+            return n;
+        }
+
+        /**
+         * Parse
+         *
+         * Advance the response parser over the bytes in app_in.
+         *
+         * @param Connection connection with a request in flight.
+         */
+        void _parse( Connection c ) throws IOException {
+            ByteBuffer in = c.app_in;
+            in.flip();
+            if (in.hasRemaining())
+                c.got_bytes = true;
+
+            try {
+                while (c.state != Connection.DONE) {
+                    if (c.state == Connection.HEAD) {
+                        String line = _line(in);
+                        if (line == null)
+                            return;
+                        _head(c, line);
+                    } else if (c.state == Connection.BODY) {
+                        if (!in.hasRemaining())
+                            return;
+                        int n = c.until_close ? in.remaining() : (int) Math.min(c.remaining, in.remaining());
+                        c.body.write(in.array(), in.arrayOffset() + in.position(), n);
+                        in.position(in.position() + n);
+                        if (!c.until_close && (c.remaining -= n) == 0)
+                            c.state = Connection.DONE;
+                        if (c.until_close)
+                            return;
+                    } else if (c.state == Connection.CHUNK_SIZE) {
+                        String line = _line(in);
+                        if (line == null)
+                            return;
+                        int ext = line.indexOf(';');
+                        long size = Long.parseLong((ext >= 0 ? line.substring(0, ext) : line).trim(), 16);
+                        c.remaining = size;
+                        c.state = size == 0 ? Connection.TRAILERS : Connection.CHUNK_DATA;
+                    } else if (c.state == Connection.CHUNK_DATA) {
+                        if (!in.hasRemaining())
+                            return;
+                        int n = (int) Math.min(c.remaining, in.remaining());
+                        c.body.write(in.array(), in.arrayOffset() + in.position(), n);
+                        in.position(in.position() + n);
+                        if ((c.remaining -= n) == 0)
+                            c.state = Connection.CHUNK_END;
+                    } else if (c.state == Connection.CHUNK_END) {
+                        if (_line(in) == null)
+                            return;
+                        c.state = Connection.CHUNK_SIZE;
+                    } else if (c.state == Connection.TRAILERS) {
+                        String line = _line(in);
+                        if (line == null)
+                            return;
+                        if (line.length() == 0)
+                            c.state = Connection.DONE;
+                    }
+                }
+            } finally {
+                in.compact();
+            }
+
+            _complete(c);
+        }
+
+        /**
+         * Status Line and Headers
+         *
+         * @param Connection connection.
+         * @param String one line of the response head.
+         */
+        void _head( Connection c, String line ) throws IOException {
+            if (c.status == 0) {
+                // Status Line
+                if (!line.startsWith("HTTP/"))
+                    throw new IOException("Invalid Status Line: " + line);
+                int sp = line.indexOf(' ');
+                c.status = Integer.parseInt(line.substring(sp + 1, sp + 4));
+                c.keep_alive = line.startsWith("HTTP/1.1");
+                return;
+            }
+
+            if (line.length() > 0) {
+                int colon = line.indexOf(':');
+                if (colon <= 0)
+                    return;
+                String name  = line.substring(0, colon).trim();
+                String value = line.substring(colon + 1).trim();
+
+                if (name.equalsIgnoreCase("Content-Length")) {
+                    c.remaining = Long.parseLong(value);
+                } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                    c.chunked = value.toLowerCase().indexOf("chunked") >= 0;
+                } else if (name.equalsIgnoreCase("Content-Encoding")) {
+                    c.gzip = value.equalsIgnoreCase("gzip");
+                } else if (name.equalsIgnoreCase("Connection")) {
+                    if (value.equalsIgnoreCase("close"))
+                        c.keep_alive = false;
+                    else if (value.equalsIgnoreCase("keep-alive"))
+                        c.keep_alive = true;
+                }
+                return;
+            }
+
+            // End of Head
+            if (c.status >= 100 && c.status < 200) {
+                c.reset();
+            } else if (c.status == 204 || c.status == 304) {
+                c.state = Connection.DONE;
+            } else if (c.chunked) {
+                c.state = Connection.CHUNK_SIZE;
+            } else if (c.remaining >= 0) {
+                c.state = c.remaining == 0 ? Connection.DONE : Connection.BODY;
+            } else {
+                c.state       = Connection.BODY;
+                c.until_close = true;
+                c.keep_alive  = false;
+            }
+        }
+
+        /**
+         * Complete
+         *
+         * Pool or close the connection and hand the body to the handler
+         * on a worker thread.
+         *
+         * @param Connection connection whose response is complete.
+         */
+        void _complete( Connection c ) {
+            final Request r = c.request;
+            final boolean gzip = c.gzip;
+            final byte[] body  = c.body.toByteArray();
+            boolean keep_alive = c.keep_alive;
+            c.request = null;
+            c.out     = null;
+            c.reset();
+
+            if (keep_alive && c.app_in.position() == 0 && running) {
+                _release(c);
+            } else {
+                _close(c);
+            }
+
+            if (r.future.isDone())
+                return;
+            _work(new Runnable() {
+                public void run() {
+                    JSONArray value = null;
+                    Throwable error = null;
+                    try {
+                        InputStream is = new ByteArrayInputStream(body);
+                        if (gzip)
+                            is = new GZIPInputStream(is);
+                        value = r.handler.onResponse(is);
+                    } catch (Throwable t) {
+                        error = t;
+                    }
+                    r.future.complete(value, error);
+                }
+            });
+        }
+
+        /**
+         * Fail
+         *
+         * Close a connection and fail its request, or send the request
+         * again on a new connection if a pooled one turned out stale.
+         *
+         * @param Connection connection that failed.
+         * @param Exception why.
+         */
+        void _fail( Connection c, Exception e ) {
+            Request r = c.request;
+            boolean stale = r != null && r.reused && !c.got_bytes && !r.retried;
+            _close(c);
+            if (r == null)
+                return;
+
+            if (stale && !(e instanceof TimeoutException)) {
+                r.retried = true;
+                _start(r);
+            } else {
+                _failRequest(r, e);
+            }
+        }
+
+        /**
+         * Expire
+         *
+         * Fail requests past their deadline and close connections idle
+         * for too long.
+         */
+        void _expire() {
+            long now = System.currentTimeMillis();
+            for (Connection c : new ArrayList<Connection>(connections)) {
+                if (c.request != null) {
+                    if (now > c.request.deadline)
+                        _fail(c, new TimeoutException("Request Timeout"));
+                } else if (now - c.idle_since > IDLE_CONNECTION_TIMEOUT) {
+                    _close(c);
+                }
+            }
+        }
+
+        /**
+         * Idle Connection
+         *
+         * @param String pool key of scheme, host and port.
+         * @return Connection most recently used idle connection, or null.
+         */
+        Connection _idle( String pool_key ) {
+            LinkedList<Connection> list = idle.get(pool_key);
+            while (list != null && !list.isEmpty()) {
+                Connection c = list.removeFirst();
+                if (c.channel.isOpen() && c.key.isValid())
+                    return c;
+                _close(c);
+            }
+            return null;
+        }
+
+        /**
+         * Release
+         *
+         * @param Connection connection to keep for reuse.
+         */
+        void _release( Connection c ) {
+            LinkedList<Connection> list = idle.get(c.pool_key);
+            if (list == null) {
+                list = new LinkedList<Connection>();
+                idle.put(c.pool_key, list);
+            }
+            if (list.size() >= MAX_IDLE_CONNECTIONS_PER_HOST) {
+                _close(c);
+                return;
+            }
+            c.idle_since = System.currentTimeMillis();
+            list.addFirst(c);
+        }
+
+        /**
+         * Close
+         *
+         * @param Connection connection to close.
+         */
+        void _close( Connection c ) {
+            connections.remove(c);
+            LinkedList<Connection> list = idle.get(c.pool_key);
+            if (list != null)
+                list.remove(c);
+            c.request = null;
+            if (c.key != null)
+                c.key.cancel();
+            try { c.channel.close(); }
+            catch (IOException e) {}
+        }
+    }
+
+    /**
+     * Line
+     *
+     * Read one CRLF terminated line.
+     *
+     * @param ByteBuffer buffer in read mode.
+     * @return String line without CRLF, or null if it is not complete yet.
+     */
+    private static String _line( ByteBuffer in ) {
+        int start = in.position();
+        for (int i = start; i < in.limit(); i++) {
+            if (in.get(i) == '\n') {
+                int end = i > start && in.get(i - 1) == '\r' ? i - 1 : i;
+                char[] chars = new char[end - start];
+                for (int j = start; j < end; j++) {
+                    chars[j - start] = (char) (in.get(j) & 0xff);
+                }
+                in.position(i + 1);
+                return new String(chars);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Grow
+     *
+     * @param ByteBuffer buffer in write mode.
+     * @param int room needed.
+     * @return ByteBuffer larger buffer with the same content.
+     */
+    private static ByteBuffer _grow( ByteBuffer buffer, int room ) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + room));
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    /**
+     * Run Delegated SSL Tasks
+     *
+     * @param SSLEngine engine in NEED_TASK.
+     */
+    private static void _tasks( SSLEngine engine ) {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+}
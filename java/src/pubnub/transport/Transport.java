@@ -0,0 +1,62 @@
+package pubnub.transport;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import org.json.JSONArray;
+
+/**
+ * PubNub 3.1 Transport
+ *
+ * HTTP client behind a Pubnub instance. A transport only needs the GET
+ * requests the PubNub REST API uses; it removes any gzip content encoding
+ * and hands the response body to the handler, on a thread of its own.
+ * Handlers run user callbacks such as a PublishCallback, which may block
+ * on another request, so a transport should not run them on a thread its
+ * own I/O depends on.
+ *
+ * @package pubnub.transport
+ */
+public interface Transport {
+
+    /**
+     * Response Handler
+     */
+    public interface Handler {
+
+        /**
+         * Response
+         *
+         * @param InputStream decoded response body.
+         * @return JSONArray result of the request.
+         */
+        public abstract JSONArray onResponse(InputStream body) throws Exception;
+
+        /**
+         * Failure
+         *
+         * @param Throwable why the request failed.
+         */
+        public abstract void onThrowable(Throwable t);
+    }
+
+    /**
+     * GET
+     *
+     * Send a request. Cancelling the returned future aborts it.
+     *
+     * @param String full url including query string.
+     * @param Map<String, String> request headers.
+     * @param Handler handler of the response.
+     * @return Future<JSONArray> of the handler's result.
+     */
+    public abstract Future<JSONArray> get(String url, Map<String, String> headers, Handler handler);
+
+    /**
+     * Close
+     *
+     * Abort pending requests and release connections and threads.
+     */
+    public abstract void close();
+}
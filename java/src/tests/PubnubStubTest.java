@@ -0,0 +1,1170 @@
+package tests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.TrustManagerFactory;
+
+import org.json.JSONArray;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import pubnub.Callback;
+import pubnub.PublishBatcher;
+import pubnub.PublishCallback;
+import pubnub.Pubnub;
+import pubnub.SubscribeDispatcher;
+import pubnub.SubscribePublisher;
+import pubnub.transport.NingTransport;
+import pubnub.transport.NioTransport;
+import pubnub.transport.Transport;
+
+/**
+ * Tests against a local stub origin instead of the PubNub cloud, so they
+ * run offline and can script failures, delays and raw HTTP responses.
+ */
+class PubnubStubTest {
+
+	static int failures = 0;
+
+	public static void main(String args[]) throws Exception {
+		testBatcherOrder();
+		testBatcherShutdown();
+		testBatcherLinger();
+		testBatcherThroughput();
+		testResumeAfterFailedPoll();
+		testCatchUpKeepsGapStart();
+		testCatchUpSkipsEmptyGap();
+		testCatchUpPerChannel();
+		testDispatcherKeepsBatches();
+		testDispatcherSurvivesError();
+		testDispatcherConflate();
+		testPublisherDoesNotPausePoll();
+		testPublisherOverflowError();
+		testPublisherRefused();
+		testSubscribeInterrupt();
+		testNioChunked();
+		testNioKeepAlive();
+		testNioBlockingCallback();
+		testNingBlockingCallback();
+		testNioClosed();
+		testNioHostnameVerification();
+		testUrlEncoding();
+		testPublishSignature();
+
+		System.out.println(failures == 0 ? "ALL PASSED" : failures + " FAILED");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**
+	 * Messages of a channel arrive in publish order, even when the origin
+	 * answers with random delays.
+	 */
+	static void testBatcherOrder() throws Exception {
+		final Random random = new Random(1);
+		final List<String> received = Collections.synchronizedList(new ArrayList<String>());
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				Thread.sleep(random.nextInt(5));
+				received.add(lastSegment(path));
+				return ok("[1,\"Sent\",\"13500000000000001\"]");
+			}
+		});
+
+		Pubnub pubnub = stubPubnub(stub);
+		PublishBatcher batcher = new PublishBatcher(pubnub, 10, 5);
+		final CountDownLatch done = new CountDownLatch(100);
+		PublishCallback callback = new PublishCallback() {
+			public void publishCallback(String channel, JSONArray response) { done.countDown(); }
+			public void errorCallback(String channel, Object message) { done.countDown(); }
+		};
+		for (int i = 0; i < 100; i++) {
+			batcher.publish("order", "m" + i, callback);
+		}
+		test(done.await(10, TimeUnit.SECONDS), "batcher delivers all messages");
+
+		boolean ordered = received.size() == 100;
+		for (int i = 0; ordered && i < 100; i++) {
+			ordered = received.get(i).equals("\"m" + i + "\"");
+		}
+		test(ordered, "batcher keeps publish order per channel");
+		test(batcher.getInFlight() == 0 && batcher.getQueueDepth() == 0, "batcher counters drain to zero");
+
+		batcher.shutdown();
+		pubnub.shutdown();
+		stub.close();
+	}
+
+	/**
+	 * publish() after shutdown() fails at once instead of queueing.
+	 */
+	static void testBatcherShutdown() throws Exception {
+		Pubnub pubnub = new Pubnub("demo", "demo");
+		PublishBatcher batcher = new PublishBatcher(pubnub, 10, 5);
+		batcher.shutdown();
+
+		boolean rejected = false;
+		try {
+			batcher.publish("closed", "late", null);
+		} catch (IllegalStateException e) {
+			rejected = true;
+		}
+		test(rejected, "batcher rejects publish after shutdown");
+		test(batcher.getQueueDepth() == 0, "rejected message is not counted");
+		pubnub.shutdown();
+	}
+
+	/**
+	 * A flush cancels the linger timer of the batch it sent, so the next
+	 * batch gets its full linger time.
+	 */
+	static void testBatcherLinger() throws Exception {
+		final List<Long> arrivals = Collections.synchronizedList(new ArrayList<Long>());
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				arrivals.add(System.currentTimeMillis());
+				return ok("[1,\"Sent\",\"13500000000000001\"]");
+			}
+		});
+
+		Pubnub pubnub = stubPubnub(stub);
+		pubnub.time();
+		PublishBatcher batcher = new PublishBatcher(pubnub, 2, 400);
+
+		// Full Batch Flushes at Once, Its Timer Would Fire at +400ms
+		batcher.publish("linger", "a", null);
+		batcher.publish("linger", "b", null);
+		Thread.sleep(200);
+
+		// Next Batch Must Wait Until +600ms
+		long queued = System.currentTimeMillis();
+		batcher.publish("linger", "c", null);
+		long deadline = System.currentTimeMillis() + 2000;
+		while (arrivals.size() < 4 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		test(arrivals.size() == 4 && arrivals.get(3) - queued >= 350, "stale linger timer does not flush next batch early");
+
+		batcher.shutdown();
+		pubnub.shutdown();
+		stub.close();
+	}
+
+	/**
+	 * With a window as large as the origin's concurrency, batching sends
+	 * a burst at least as fast as plain publishAsync calls; a window of 1
+	 * waits a round trip per message.
+	 */
+	static void testBatcherThroughput() throws Exception {
+		final Semaphore origin = new Semaphore(8);
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				origin.acquire();
+				try {
+					Thread.sleep(20);
+				} finally {
+					origin.release();
+				}
+				return ok("[1,\"Sent\",\"13500000000000001\"]");
+			}
+		});
+
+		NioTransport transport = new NioTransport(2);
+		Pubnub pubnub = stubPubnub(stub, transport);
+		int burst = 80;
+
+		CountDownLatch done = new CountDownLatch(burst);
+		long start = System.nanoTime();
+		for (int i = 0; i < burst; i++) {
+			pubnub.publishAsync("plain", "m" + i, countDown(done));
+		}
+		test(done.await(20, TimeUnit.SECONDS), "plain publishAsync burst completes");
+		long plain = System.nanoTime() - start;
+
+		long windowed = batchedBurst(new PublishBatcher(pubnub, 50, 5, 8), burst);
+		long serial = batchedBurst(new PublishBatcher(pubnub, 50, 5), burst);
+		test(windowed <= plain * 5 / 4 + TimeUnit.MILLISECONDS.toNanos(50), "windowed batcher is as fast as plain publishAsync");
+		test(serial > windowed * 2, "window of 1 sends one message per round trip");
+
+		pubnub.shutdown();
+		transport.close();
+		stub.close();
+	}
+
+	static long batchedBurst(PublishBatcher batcher, int burst) throws Exception {
+		CountDownLatch done = new CountDownLatch(burst);
+		long start = System.nanoTime();
+		for (int i = 0; i < burst; i++) {
+			batcher.publish("batched", "m" + i, countDown(done));
+		}
+		test(done.await(20, TimeUnit.SECONDS), "batched burst completes");
+		long elapsed = System.nanoTime() - start;
+		batcher.shutdown();
+		return elapsed;
+	}
+
+	static PublishCallback countDown(final CountDownLatch done) {
+		return new PublishCallback() {
+			public void publishCallback(String channel, JSONArray response) { done.countDown(); }
+			public void errorCallback(String channel, Object message) { done.countDown(); }
+		};
+	}
+
+	/**
+	 * A failed long-poll is retried from the last timetoken received.
+	 */
+	static void testResumeAfterFailedPoll() throws Exception {
+		final AtomicInteger polls = new AtomicInteger();
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				if (path.startsWith("/time/"))
+					return ok("[200]");
+				String tt = lastSegment(path);
+				if (tt.equals("0"))
+					return ok("[[],\"100\"]");
+				if (tt.equals("100") && polls.incrementAndGet() == 1)
+					return unavailable();
+				if (tt.equals("100"))
+					return ok("[[\"hi\"],\"300\"]");
+				return hold();
+			}
+		});
+
+		Pubnub pubnub = stubPubnub(stub);
+		pubnub.setReconnectBackoff(1, 5);
+		Receiver receiver = new Receiver();
+		pubnub.subscribeAsync("resume", receiver);
+		receiver.await(1);
+
+		test(receiver.messages.contains("hi"), "subscribe resumes after failed poll");
+		test(subscribeTimetokens(stub).subList(0, 3).toString().equals("[0, 100, 100]"), "failed poll is retried from last timetoken");
+		test(receiver.reconnects.get() > 0, "reconnect callback on failed poll");
+
+		close(pubnub, "resume", stub);
+	}
+
+	/**
+	 * With catch-up on, a failed replay keeps the gap start, so the next
+	 * reconnect replays from the last timetoken received before the drop.
+	 */
+	static void testCatchUpKeepsGapStart() throws Exception {
+		final AtomicInteger times = new AtomicInteger();
+		final AtomicInteger histories = new AtomicInteger();
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				if (path.startsWith("/time/"))
+					return ok("[" + (times.incrementAndGet() == 1 ? 200 : 300) + "]");
+				if (path.startsWith("/v2/history/")) {
+					if (histories.incrementAndGet() == 1)
+						return unavailable();
+					return ok("[[{\"message\":\"gap\",\"timetoken\":150}],100,300]");
+				}
+				String tt = lastSegment(path);
+				if (tt.equals("0"))
+					return ok("[[],\"100\"]");
+				if (tt.equals("100") || tt.equals("200"))
+					return unavailable();
+				if (tt.equals("300"))
+					return ok("[[\"live\"],\"400\"]");
+				return hold();
+			}
+		});
+
+		Pubnub pubnub = stubPubnub(stub);
+		pubnub.setReconnectBackoff(1, 5);
+		pubnub.setCatchUp(100);
+		Receiver receiver = new Receiver();
+		pubnub.subscribeAsync("gap", receiver);
+		receiver.await(2);
+
+		List<String> ranges = historyRanges(stub);
+		test(receiver.messages.toString().equals("[gap, live]"), "catch-up replays gap after failed replay");
+		test(ranges.toString().equals("[100-200, 100-300]"), "catch-up keeps gap start until poll succeeds");
+
+		close(pubnub, "gap", stub);
+	}
+
+	/**
+	 * A reconnect whose server time has not moved past the replayed gap
+	 * requests no history.
+	 */
+	static void testCatchUpSkipsEmptyGap() throws Exception {
+		final AtomicInteger times = new AtomicInteger();
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				if (path.startsWith("/time/"))
+					return ok("[" + (times.incrementAndGet() <= 2 ? 200 : 300) + "]");
+				if (path.startsWith("/v2/history/"))
+					return ok("[[],0,0]");
+				String tt = lastSegment(path);
+				if (tt.equals("0"))
+					return ok("[[],\"100\"]");
+				if (tt.equals("100") || (tt.equals("200") && times.get() <= 2))
+					return unavailable();
+				if (tt.equals("200") || tt.equals("300"))
+					return ok("[[\"live\"],\"400\"]");
+				return hold();
+			}
+		});
+
+		Pubnub pubnub = stubPubnub(stub);
+		pubnub.setReconnectBackoff(1, 5);
+		pubnub.setCatchUp(100);
+		Receiver receiver = new Receiver();
+		pubnub.subscribeAsync("empty", receiver);
+		receiver.await(1);
+
+		List<String> ranges = historyRanges(stub);
+		test(receiver.messages.contains("live"), "subscribe recovers after repeated failed polls");
+		test(ranges.toString().equals("[100-200, 200-300]"), "catch-up skips empty gap");
+
+		close(pubnub, "empty", stub);
+	}
+
+	/**
+	 * A failed replay of one channel is retried for that channel alone and
+	 * the other channel gets its gap once, whether the next poll fails or
+	 * succeeds.
+	 */
+	static void testCatchUpPerChannel() throws Exception {
+		testCatchUpPerChannel(false);
+		testCatchUpPerChannel(true);
+	}
+
+	static void testCatchUpPerChannel(final boolean drop_twice) throws Exception {
+		final AtomicInteger times = new AtomicInteger();
+		final AtomicInteger a_histories = new AtomicInteger();
+		final AtomicInteger b_histories = new AtomicInteger();
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				if (path.startsWith("/time/"))
+					return ok("[" + (times.incrementAndGet() == 1 ? 200 : 300) + "]");
+				if (path.startsWith("/v2/history/sub-key/demo/channel/a?")) {
+					a_histories.incrementAndGet();
+					return ok("[[{\"message\":\"a-gap\",\"timetoken\":150}],100,200]");
+				}
+				if (path.startsWith("/v2/history/sub-key/demo/channel/b?")) {
+					if (b_histories.incrementAndGet() == 1)
+						return unavailable();
+					return ok("[[{\"message\":\"b-gap\",\"timetoken\":160}],100,200]");
+				}
+				if (!path.startsWith("/subscribe/demo/a%2Cb/"))
+					return hold();
+				String tt = lastSegment(path);
+				if (tt.equals("0"))
+					return ok("[[],\"100\"]");
+				if (tt.equals("100"))
+					return unavailable();
+				if (tt.equals("200") && drop_twice)
+					return unavailable();
+				if (tt.equals("200") || tt.equals("300"))
+					return ok("[[\"live\"],\"350\",\"a\"]");
+				return hold();
+			}
+		});
+
+		Pubnub pubnub = stubPubnub(stub);
+		pubnub.setReconnectBackoff(1, 5);
+		pubnub.setCatchUp(100);
+		Receiver a = new Receiver();
+		Receiver b = new Receiver();
+		pubnub.subscribeAsync("a", a);
+		pubnub.subscribeAsync("b", b);
+		a.await(2);
+		b.await(1);
+		Thread.sleep(200);
+
+		String when = drop_twice ? "after poll fails again" : "after poll succeeds";
+		test(a.messages.toString().equals("[a-gap, live]"), "catch-up replays gap of a channel once " + when);
+		test(b.messages.toString().equals("[b-gap]") && b_histories.get() == 2, "catch-up retries failed channel " + when);
+
+		HashMap<String, Object> args = new HashMap<String, Object>(1);
+		args.put("channel", "a");
+		pubnub.unsubscribe(args);
+		close(pubnub, "b", stub);
+	}
+
+	/**
+	 * Drop and conflate policies discard single messages, never batches.
+	 */
+	static void testDispatcherKeepsBatches() throws Exception {
+		SubscribeDispatcher.OverflowPolicy[] policies = {
+			SubscribeDispatcher.OverflowPolicy.DROP_NEWEST,
+			SubscribeDispatcher.OverflowPolicy.DROP_OLDEST,
+			SubscribeDispatcher.OverflowPolicy.CONFLATE
+		};
+		for (SubscribeDispatcher.OverflowPolicy policy : policies) {
+			SubscribeDispatcher dispatcher = new SubscribeDispatcher(1, 2, policy);
+			final CountDownLatch release = new CountDownLatch(1);
+			final List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+
+			// Hold the Worker So Tasks Queue Up
+			dispatcher.dispatch("ch", new Runnable() {
+				public void run() {
+					try { release.await(); } catch (InterruptedException e) {}
+				}
+			});
+			Thread.sleep(50);
+
+			String[] order = { "batch-1", "m1", "batch-2", "m2", "batch-3" };
+			for (final String name : order) {
+				Runnable task = new Runnable() {
+					public void run() { ran.add(name); }
+				};
+				if (name.startsWith("batch"))
+					dispatcher.dispatchBatch("ch", task);
+				else
+					dispatcher.dispatch("ch", task);
+			}
+			release.countDown();
+			long deadline = System.currentTimeMillis() + 2000;
+			while (dispatcher.getQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			Thread.sleep(20);
+
+			test(ran.contains("batch-1") && ran.contains("batch-2") && ran.contains("batch-3"), "dispatcher " + policy + " keeps batches");
+			dispatcher.shutdown();
+		}
+	}
+
+	/**
+	 * CONFLATE keeps only the latest waiting message of a channel, at its
+	 * place in the queue, and drops a new channel's message when full
+	 * rather than another channel's.
+	 */
+	static void testDispatcherConflate() throws Exception {
+		SubscribeDispatcher dispatcher = new SubscribeDispatcher(1, 2, SubscribeDispatcher.OverflowPolicy.CONFLATE);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+
+		// Hold the Worker So Tasks Queue Up
+		dispatcher.dispatch("hold", new Runnable() {
+			public void run() {
+				try { release.await(); } catch (InterruptedException e) {}
+			}
+		});
+		Thread.sleep(50);
+
+		String[][] order = { { "other", "o1" }, { "ch", "m1" }, { "ch", "m2" }, { "ch", "m3" } };
+		for (final String[] message : order) {
+			dispatcher.dispatch(message[0], new Runnable() {
+				public void run() { ran.add(message[1]); }
+			});
+		}
+		boolean queued = dispatcher.dispatch("new", new Runnable() {
+			public void run() { ran.add("n1"); }
+		});
+		release.countDown();
+		long deadline = System.currentTimeMillis() + 2000;
+		while (dispatcher.getQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		Thread.sleep(20);
+
+		test(ran.toString().equals("[o1, m3]"), "dispatcher CONFLATE delivers only latest message of a channel");
+		test(!queued && dispatcher.getConflatedCount() == 2 && dispatcher.getDroppedCount() == 1,
+			"dispatcher CONFLATE drops new channel instead of evicting others");
+		dispatcher.shutdown();
+	}
+
+	/**
+	 * A task throwing an Error is counted and the worker keeps running.
+	 */
+	static void testDispatcherSurvivesError() throws Exception {
+		final List<Throwable> reported = Collections.synchronizedList(new ArrayList<Throwable>());
+		SubscribeDispatcher dispatcher = new SubscribeDispatcher(1, 10, SubscribeDispatcher.OverflowPolicy.BLOCK,
+			new java.util.concurrent.ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r);
+					t.setDaemon(true);
+					t.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+						public void uncaughtException(Thread t, Throwable e) { reported.add(e); }
+					});
+					return t;
+				}
+			});
+		final CountDownLatch after = new CountDownLatch(1);
+		dispatcher.dispatch("ch", new Runnable() {
+			public void run() { throw new AssertionError("callback bug"); }
+		});
+		dispatcher.dispatch("ch", new Runnable() {
+			public void run() { after.countDown(); }
+		});
+
+		test(after.await(2, TimeUnit.SECONDS), "dispatcher worker survives Error");
+		test(dispatcher.getFailedCount() == 1 && reported.size() == 1, "dispatcher reports failed task");
+		dispatcher.shutdown();
+	}
+
+	/**
+	 * A publisher whose subscriber stopped requesting buffers on its own
+	 * while the shared long-poll keeps serving the other channels.
+	 */
+	static void testPublisherDoesNotPausePoll() throws Exception {
+		final AtomicInteger timetoken = new AtomicInteger(100);
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				if (!path.contains("%2C"))
+					return hold();
+				Thread.sleep(5);
+				return ok("[[\"s\",\"f\"],\"" + timetoken.incrementAndGet() + "\",\"slow,fast\"]");
+			}
+		});
+
+		Pubnub pubnub = stubPubnub(stub);
+		SubscribePublisher publisher = pubnub.publisher("slow", 5, SubscribePublisher.OverflowPolicy.DROP_OLDEST);
+		Collector slow = new Collector(1);
+		publisher.subscribe(slow);
+		Thread.sleep(100);
+		Receiver fast = new Receiver();
+		pubnub.subscribeAsync("fast", fast);
+		fast.await(20);
+
+		test(fast.messages.size() >= 20, "publisher without demand does not pause other channels");
+		test(slow.received.size() == 1 && publisher.getDroppedCount() > 0, "publisher buffer drops oldest on overflow");
+
+		slow.subscription.cancel();
+		close(pubnub, "fast", stub);
+	}
+
+	/**
+	 * With the ERROR policy an overflowing buffer fails the subscriber.
+	 */
+	static void testPublisherOverflowError() throws Exception {
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				if (!lastSegment(path).equals("0"))
+					return hold();
+				return ok("[[1,2,3,4],\"100\"]");
+			}
+		});
+
+		Pubnub pubnub = stubPubnub(stub);
+		Collector collector = new Collector(1);
+		pubnub.publisher("overflow", 2).subscribe(collector);
+		collector.awaitError();
+
+		test(collector.error instanceof IllegalStateException, "publisher fails subscriber on overflow");
+		test(collector.received.size() == 1, "publisher delivers requested messages before overflow");
+
+		pubnub.shutdown();
+		stub.close();
+	}
+
+	/**
+	 * A publisher of a channel that is already subscribed fails its
+	 * subscriber instead of waiting.
+	 */
+	static void testPublisherRefused() throws Exception {
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				return hold();
+			}
+		});
+
+		Pubnub pubnub = stubPubnub(stub);
+		pubnub.subscribeAsync("taken", new Receiver());
+		Thread.sleep(100);
+		Collector collector = new Collector(1);
+		pubnub.publisher("taken", 10).subscribe(collector);
+		collector.awaitError();
+
+		test(collector.error != null && "Already Connected".equals(collector.error.getMessage()), "publisher of subscribed channel is refused");
+
+		close(pubnub, "taken", stub);
+	}
+
+	/**
+	 * Interrupting the subscribe thread unsubscribes and returns.
+	 */
+	static void testSubscribeInterrupt() throws Exception {
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				return hold();
+			}
+		});
+
+		Pubnub pubnub = stubPubnub(stub);
+		Receiver receiver = new Receiver();
+		Thread t = pubnub.subscribeAsync("interrupt", receiver);
+		Thread.sleep(200);
+		t.interrupt();
+		t.join(2000);
+
+		test(!t.isAlive(), "interrupt stops subscribe loop");
+		test(receiver.disconnects.get() == 1, "interrupt unsubscribes channel");
+
+		pubnub.shutdown();
+		stub.close();
+	}
+
+	/**
+	 * NioTransport reassembles a chunked body split across writes.
+	 */
+	static void testNioChunked() throws Exception {
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				return ("HTTP/1.1 200 OK\r\n"
+					+ "Transfer-Encoding: chunked\r\n\r\n"
+					+ "5;ext=1\r\n[1350\r\n"
+					+ "d\r\n0000000000001\r\n"
+					+ "1\r\n]\r\n"
+					+ "0\r\nX-Trailer: yes\r\n\r\n").getBytes("US-ASCII");
+			}
+		});
+
+		NioTransport transport = new NioTransport(1);
+		Pubnub pubnub = stubPubnub(stub, transport);
+		test(pubnub.time() == 13500000000000001L, "nio parses chunked body");
+		test(pubnub.time() == 13500000000000001L, "nio reuses connection after chunked body");
+		test(stub.connections.get() == 1, "nio keeps chunked connection alive");
+
+		transport.close();
+		stub.close();
+	}
+
+	/**
+	 * Sequential requests share one pooled connection, and a Connection:
+	 * close response is not pooled.
+	 */
+	static void testNioKeepAlive() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				if (count.incrementAndGet() == 3) {
+					return ("HTTP/1.1 200 OK\r\nConnection: close\r\n"
+						+ "Content-Length: 19\r\n\r\n[13500000000000003]").getBytes("US-ASCII");
+				}
+				return ok("[1350000000000000" + count.get() + "]");
+			}
+		});
+
+		NioTransport transport = new NioTransport(1);
+		Pubnub pubnub = stubPubnub(stub, transport);
+		boolean values = true;
+		for (int i = 1; i <= 4; i++) {
+			values &= pubnub.time() == 13500000000000000L + i;
+		}
+		test(values, "nio keep-alive responses");
+		test(stub.connections.get() == 2, "nio pools connection until Connection: close");
+
+		transport.close();
+		stub.close();
+	}
+
+	/**
+	 * A publish callback that makes a blocking request does not stall the
+	 * selector thread it would need.
+	 */
+	static void testNioBlockingCallback() throws Exception {
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				if (path.startsWith("/time/"))
+					return ok("[13500000000000001]");
+				return ok("[1,\"Sent\",\"13500000000000001\"]");
+			}
+		});
+
+		NioTransport transport = new NioTransport(1);
+		final Pubnub pubnub = stubPubnub(stub, transport);
+		final long[] time = new long[1];
+		final CountDownLatch done = new CountDownLatch(1);
+		pubnub.publishAsync("blocking", "m", new PublishCallback() {
+			public void publishCallback(String channel, JSONArray response) {
+				time[0] = pubnub.time();
+				done.countDown();
+			}
+			public void errorCallback(String channel, Object message) { done.countDown(); }
+		});
+		test(done.await(5, TimeUnit.SECONDS) && time[0] == 13500000000000001L, "nio callback may block on another request");
+
+		transport.close();
+		stub.close();
+	}
+
+	/**
+	 * Ning hands responses to a worker thread, so a publish callback may
+	 * make a blocking request without holding a Netty I/O thread.
+	 */
+	static void testNingBlockingCallback() throws Exception {
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				if (path.startsWith("/time/"))
+					return ok("[13500000000000001]");
+				return ok("[1,\"Sent\",\"13500000000000001\"]");
+			}
+		});
+
+		NingTransport transport = new NingTransport();
+		final Pubnub pubnub = stubPubnub(stub, transport);
+		final long[] time = new long[1];
+		final String[] thread = new String[1];
+		final CountDownLatch done = new CountDownLatch(1);
+		pubnub.publishAsync("blocking", "m", new PublishCallback() {
+			public void publishCallback(String channel, JSONArray response) {
+				thread[0] = Thread.currentThread().getName();
+				time[0] = pubnub.time();
+				done.countDown();
+			}
+			public void errorCallback(String channel, Object message) { done.countDown(); }
+		});
+		test(done.await(5, TimeUnit.SECONDS) && time[0] == 13500000000000001L, "ning callback may block on another request");
+		test(thread[0] != null && thread[0].startsWith("pubnub-ning-worker-"), "ning callback runs on a worker thread");
+
+		transport.close();
+		stub.close();
+	}
+
+	/**
+	 * Requests on a closed transport fail at once.
+	 */
+	static void testNioClosed() throws Exception {
+		NioTransport transport = new NioTransport(1);
+		transport.close();
+		Thread.sleep(50);
+
+		final CountDownLatch failed = new CountDownLatch(1);
+		Future<JSONArray> f = transport.get("http://127.0.0.1:1/time/0", null, new Transport.Handler() {
+			public JSONArray onResponse(InputStream body) { return null; }
+			public void onThrowable(Throwable t) { failed.countDown(); }
+		});
+		boolean rejected = false;
+		try {
+			f.get(1, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			rejected = true;
+		}
+		test(rejected && failed.await(1, TimeUnit.SECONDS), "nio fails requests after close");
+	}
+
+	/**
+	 * TLS connects to the host its certificate names and refuses the
+	 * same server under another name.
+	 */
+	static void testNioHostnameVerification() throws Exception {
+		File keystore = File.createTempFile("stub", ".jks");
+		keystore.delete();
+		Process keytool = new ProcessBuilder(
+			System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool",
+			"-genkeypair", "-keystore", keystore.getPath(), "-storepass", "secret", "-keypass", "secret",
+			"-alias", "stub", "-keyalg", "RSA", "-keysize", "2048", "-validity", "2",
+			"-dname", "CN=localhost", "-ext", "SAN=dns:localhost"
+		).redirectErrorStream(true).start();
+		while (keytool.getInputStream().read() != -1) {}
+		if (keytool.waitFor() != 0) {
+			test(false, "keytool generates stub certificate");
+			return;
+		}
+
+		KeyStore ks = KeyStore.getInstance("JKS");
+		FileInputStream in = new FileInputStream(keystore);
+		ks.load(in, "secret".toCharArray());
+		in.close();
+		keystore.delete();
+		KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+		kmf.init(ks, "secret".toCharArray());
+		TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+		tmf.init(ks);
+		SSLContext context = SSLContext.getInstance("TLS");
+		context.init(kmf.getKeyManagers(), tmf.getTrustManagers(), null);
+
+		StubServer stub = new StubServer(
+			context.getServerSocketFactory().createServerSocket(0, 50, InetAddress.getByName("127.0.0.1")),
+			new Responder() {
+				public byte[] respond(String path) throws Exception {
+					return ok("[13500000000000001]");
+				}
+			});
+
+		NioTransport transport = new NioTransport(1, context);
+		Pubnub right = new Pubnub("demo", "demo", "", "", true, transport);
+		right.setOrigin("localhost:" + stub.getPort());
+		test(right.time() == 13500000000000001L, "nio accepts certificate for its host");
+
+		Future<JSONArray> f = transport.get("https://127.0.0.1:" + stub.getPort() + "/time/0", null, new Transport.Handler() {
+			public JSONArray onResponse(InputStream body) { return new JSONArray(); }
+			public void onThrowable(Throwable t) {}
+		});
+		Throwable cause = null;
+		try {
+			f.get(5, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			cause = e.getCause();
+		}
+		test(cause instanceof SSLHandshakeException, "nio rejects certificate for wrong host");
+
+		transport.close();
+		stub.close();
+	}
+
+	/**
+	 * Channel and message are sent as the percent-encoded UTF-8 bytes of
+	 * everything but letters, digits, '-' and '_', with a lone surrogate
+	 * encoded as U+FFFD.
+	 */
+	static void testUrlEncoding() throws Exception {
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				return ok("[1,\"Sent\",\"13500000000000001\"]");
+			}
+		});
+
+		NioTransport transport = new NioTransport(1);
+		Pubnub pubnub = stubPubnub(stub, transport);
+		String channel = "a b/c-d_e.f~g!h*i'j(k)l\u00fc\u20ac\ud83d\ude00";
+		String message = "caf\u00e9 & = + ? # % \\ [] {} \u4e2d \ud800x \udc00";
+		HashMap<String, Object> args = new HashMap<String, Object>(2);
+		args.put("channel", channel);
+		args.put("message", message);
+		pubnub.publish(args);
+
+		String sent = "\"" + message.replace('\ud800', '\ufffd').replace('\udc00', '\ufffd') + "\"";
+		String expected = "/publish/demo/demo/0/" + percentEncode(channel) + "/0/" + percentEncode(sent);
+		test(stub.requests.size() == 1 && stub.requests.get(0).equals(expected), "url components are percent-encoded as UTF-8");
+		test(lastSegment(stub.requests.get(0)).equals(sent), "encoded message decodes to the original");
+
+		pubnub.shutdown();
+		transport.close();
+		stub.close();
+	}
+
+	/**
+	 * Publish signatures match a plain HMAC-SHA256 keyed with
+	 * publish/subscribe/secret/channel/message, on both sides of the
+	 * 64 byte HMAC block size where the signer switches to hashing the key.
+	 */
+	static void testPublishSignature() throws Exception {
+		StubServer stub = new StubServer(new Responder() {
+			public byte[] respond(String path) throws Exception {
+				return ok("[1,\"Sent\",\"13500000000000001\"]");
+			}
+		});
+
+		NioTransport transport = new NioTransport(1);
+		Pubnub pubnub = new Pubnub("pub", "sub", "sec", "", false, transport);
+		pubnub.setOrigin("127.0.0.1:" + stub.getPort());
+
+		// "pub/sub/sec/ch/" is 15 bytes, the quoted message 2 more
+		String[] messages = {
+			"hi",
+			repeat('x', 47),
+			repeat('x', 48),
+			repeat('x', 300),
+			"\u00fc\u20ac\ud83d\ude00 " + repeat('y', 40)
+		};
+		boolean signed = true;
+		for (String message : messages) {
+			HashMap<String, Object> args = new HashMap<String, Object>(2);
+			args.put("channel", "ch");
+			args.put("message", message);
+			pubnub.publish(args);
+		}
+		for (int i = 0; i < messages.length; i++) {
+			String[] segments = stub.requests.get(i).split("/");
+			String sent = lastSegment(stub.requests.get(i));
+			signed &= segments[4].equals(hmacSHA256("pub/sub/sec/ch/" + sent, "sec"));
+		}
+		test(stub.requests.size() == messages.length && signed, "publish signature matches HMAC-SHA256 of the message");
+
+		pubnub.shutdown();
+		transport.close();
+		stub.close();
+	}
+
+	// Helpers
+
+	static List<String> subscribeTimetokens(StubServer stub) throws Exception {
+		List<String> tokens = new ArrayList<String>();
+		synchronized (stub.requests) {
+			for (String path : stub.requests) {
+				if (path.startsWith("/subscribe/"))
+					tokens.add(lastSegment(path));
+			}
+		}
+		return tokens;
+	}
+
+	static List<String> historyRanges(StubServer stub) {
+		List<String> ranges = new ArrayList<String>();
+		synchronized (stub.requests) {
+			for (String path : stub.requests) {
+				if (!path.startsWith("/v2/history/"))
+					continue;
+				HashMap<String, String> params = new HashMap<String, String>();
+				for (String pair : path.substring(path.indexOf('?') + 1).split("&")) {
+					int eq = pair.indexOf('=');
+					params.put(pair.substring(0, eq), pair.substring(eq + 1));
+				}
+				ranges.add(params.get("start") + "-" + params.get("end"));
+			}
+		}
+		return ranges;
+	}
+
+	static void close(Pubnub pubnub, String channel, StubServer stub) {
+		HashMap<String, Object> args = new HashMap<String, Object>(1);
+		args.put("channel", channel);
+		pubnub.unsubscribe(args);
+		pubnub.shutdown();
+		stub.close();
+	}
+
+	static byte[] hold() throws Exception {
+		Thread.sleep(30000);
+		return null;
+	}
+
+	static Pubnub stubPubnub(StubServer stub) {
+		return stubPubnub(stub, null);
+	}
+
+	static Pubnub stubPubnub(StubServer stub, Transport transport) {
+		Pubnub pubnub = new Pubnub("demo", "demo", "", "", false, transport);
+		pubnub.setOrigin("127.0.0.1:" + stub.getPort());
+		return pubnub;
+	}
+
+	static String lastSegment(String path) throws Exception {
+		String raw = path.substring(path.lastIndexOf('/') + 1);
+		int query = raw.indexOf('?');
+		if (query >= 0)
+			raw = raw.substring(0, query);
+		return URLDecoder.decode(raw, "UTF-8");
+	}
+
+	static String hmacSHA256(String key, String data) throws Exception {
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(key.getBytes("UTF-8"), "HmacSHA256"));
+		return new BigInteger(1, mac.doFinal(data.getBytes("UTF-8"))).toString(16);
+	}
+
+	static String repeat(char c, int n) {
+		char[] chars = new char[n];
+		Arrays.fill(chars, c);
+		return new String(chars);
+	}
+
+	static String percentEncode(String s) throws Exception {
+		StringBuilder o = new StringBuilder();
+		for (byte b : s.getBytes("UTF-8")) {
+			int c = b & 0xFF;
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_')
+				o.append((char) c);
+			else
+				o.append(String.format("%%%02X", c));
+		}
+		return o.toString();
+	}
+
+	static byte[] ok(String body) throws Exception {
+		byte[] b = body.getBytes("UTF-8");
+		String head = "HTTP/1.1 200 OK\r\n"
+			+ "Content-Type: text/javascript; charset=UTF-8\r\n"
+			+ "Content-Length: " + b.length + "\r\n\r\n";
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(head.getBytes("US-ASCII"));
+		out.write(b);
+		return out.toByteArray();
+	}
+
+	static byte[] unavailable() throws Exception {
+		return "HTTP/1.1 503 Service Unavailable\r\nContent-Length: 0\r\n\r\n".getBytes("US-ASCII");
+	}
+
+	private static void test(Boolean trial, String name) {
+		if (trial) {
+			System.out.println("PASS " + name);
+		} else {
+			failures++;
+			System.err.println("- FAIL - " + name);
+		}
+	}
+
+	/**
+	 * Subscribe callback recording what it receives.
+	 */
+	static class Receiver implements Callback {
+		final List<String> messages = Collections.synchronizedList(new ArrayList<String>());
+		final AtomicInteger reconnects = new AtomicInteger();
+		final AtomicInteger disconnects = new AtomicInteger();
+
+		public boolean subscribeCallback(String channel, Object message) {
+			synchronized (this) {
+				messages.add(message.toString());
+				notifyAll();
+			}
+			return true;
+		}
+
+		public void errorCallback(String channel, Object message) {}
+		public void connectCallback(String channel) {}
+		public void reconnectCallback(String channel) { reconnects.incrementAndGet(); }
+		public void disconnectCallback(String channel) { disconnects.incrementAndGet(); }
+
+		synchronized void await(int count) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + 10000;
+			while (messages.size() < count && System.currentTimeMillis() < deadline) {
+				wait(100);
+			}
+		}
+	}
+
+	/**
+	 * Reactive Streams subscriber requesting a fixed number of messages.
+	 */
+	static class Collector implements Subscriber<Object> {
+		final List<Object> received = Collections.synchronizedList(new ArrayList<Object>());
+		final CountDownLatch failed = new CountDownLatch(1);
+		final long request;
+		volatile Subscription subscription;
+		volatile Throwable error;
+
+		Collector(long request) {
+			this.request = request;
+		}
+
+		public void onSubscribe(Subscription s) {
+			subscription = s;
+			s.request(request);
+		}
+
+		public void onNext(Object message) { received.add(message); }
+		public void onError(Throwable t) { error = t; failed.countDown(); }
+		public void onComplete() {}
+
+		void awaitError() throws InterruptedException {
+			failed.await(10, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Raw HTTP response for a request path, or null to close the
+	 * connection without answering.
+	 */
+	interface Responder {
+		byte[] respond(String path) throws Exception;
+	}
+
+	/**
+	 * Minimal keep-alive HTTP/1.1 origin on a loopback port, one thread
+	 * per connection.
+	 */
+	static class StubServer implements Runnable {
+		final ServerSocket server;
+		final Responder responder;
+		final AtomicInteger connections = new AtomicInteger();
+		final List<String> requests = Collections.synchronizedList(new ArrayList<String>());
+		final List<Socket> sockets = Collections.synchronizedList(new ArrayList<Socket>());
+
+		StubServer(Responder responder) throws IOException {
+			this(new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1")), responder);
+		}
+
+		StubServer(ServerSocket server, Responder responder) {
+			this.server = server;
+			this.responder = responder;
+			Thread t = new Thread(this, "stub-accept");
+			t.setDaemon(true);
+			t.start();
+		}
+
+		int getPort() {
+			return server.getLocalPort();
+		}
+
+		public void run() {
+			while (!server.isClosed()) {
+				try {
+					final Socket socket = server.accept();
+					connections.incrementAndGet();
+					sockets.add(socket);
+					Thread t = new Thread("stub-connection") {
+						public void run() { serve(socket); }
+					};
+					t.setDaemon(true);
+					t.start();
+				} catch (IOException e) {
+					return;
+				}
+			}
+		}
+
+		void serve(Socket socket) {
+			try {
+				InputStream in = socket.getInputStream();
+				OutputStream out = socket.getOutputStream();
+				for (;;) {
+					String line = readLine(in);
+					if (line == null)
+						break;
+					if (line.length() == 0)
+						continue;
+					String path = line.split(" ")[1];
+
+					// Headers
+					String header;
+					while ((header = readLine(in)) != null && header.length() > 0) {}
+
+					requests.add(path);
+					byte[] response = responder.respond(path);
+					if (response == null)
+						break;
+					out.write(response);
+					out.flush();
+				}
+			} catch (Exception e) {
+			} finally {
+				try { socket.close(); } catch (IOException e) {}
+			}
+		}
+
+		static String readLine(InputStream in) throws IOException {
+			StringBuilder sb = new StringBuilder();
+			int c;
+			while ((c = in.read()) != -1) {
+				if (c == '\n')
+					return sb.toString();
+				if (c != '\r')
+					sb.append((char) c);
+			}
+			return sb.length() > 0 ? sb.toString() : null;
+		}
+
+		void close() {
+			try { server.close(); } catch (IOException e) {}
+			synchronized (sockets) {
+				for (Socket s : sockets) {
+					try { s.close(); } catch (IOException e) {}
+				}
+			}
+		}
+	}
+}